@@ -0,0 +1,137 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
+
+/**
+ * A decommissioned vessel moved out of {@code vessels} by {@link VesselArchiveService}. It keeps
+ * the vessel's id, so a restore puts the vessel back exactly as it was.
+ */
+@Entity
+@Table(name = "archived_vessels", indexes = {
+        @Index(name = "idx_archived_vessels_imo", columnList = "imo_number"),
+        @Index(name = "idx_archived_vessels_archived_at", columnList = "archived_at")
+})
+public class ArchivedVessel {
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // Not unique: a live vessel may take the number over and be archived in turn
+    @Column(name = "imo_number", nullable = false, length = 10)
+    private String imoNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private VesselType type;
+
+    @Column(name = "flag_state", nullable = false, length = 50)
+    private String flagState;
+
+    @Column(name = "year_built")
+    private Integer yearBuilt;
+
+    @Column(name = "length_meters")
+    private Double lengthMeters;
+
+    @Column(name = "gross_tonnage")
+    private Double grossTonnage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private VesselStatus status;
+
+    @Column(name = "last_port_of_call", length = 100)
+    private String lastPortOfCall;
+
+    @Column(name = "next_port_of_call", length = 100)
+    private String nextPortOfCall;
+
+    @Column(name = "estimated_arrival")
+    private LocalDateTime estimatedArrival;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // The live row's version, continued on restore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Constructors
+    public ArchivedVessel() {}
+
+    public Vessel toVessel() {
+        Vessel vessel = new Vessel(name, imoNumber, type, flagState);
+        vessel.setId(id);
+        vessel.setYearBuilt(yearBuilt);
+        vessel.setLengthMeters(lengthMeters);
+        vessel.setGrossTonnage(grossTonnage);
+        vessel.setStatus(status);
+        vessel.setLastPortOfCall(lastPortOfCall);
+        vessel.setNextPortOfCall(nextPortOfCall);
+        vessel.setEstimatedArrival(estimatedArrival);
+        vessel.setCreatedAt(createdAt);
+        vessel.setUpdatedAt(updatedAt);
+        vessel.setVersion(version);
+        return vessel;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getImoNumber() { return imoNumber; }
+    public void setImoNumber(String imoNumber) { this.imoNumber = imoNumber; }
+
+    public VesselType getType() { return type; }
+    public void setType(VesselType type) { this.type = type; }
+
+    public String getFlagState() { return flagState; }
+    public void setFlagState(String flagState) { this.flagState = flagState; }
+
+    public Integer getYearBuilt() { return yearBuilt; }
+    public void setYearBuilt(Integer yearBuilt) { this.yearBuilt = yearBuilt; }
+
+    public Double getLengthMeters() { return lengthMeters; }
+    public void setLengthMeters(Double lengthMeters) { this.lengthMeters = lengthMeters; }
+
+    public Double getGrossTonnage() { return grossTonnage; }
+    public void setGrossTonnage(Double grossTonnage) { this.grossTonnage = grossTonnage; }
+
+    public VesselStatus getStatus() { return status; }
+    public void setStatus(VesselStatus status) { this.status = status; }
+
+    public String getLastPortOfCall() { return lastPortOfCall; }
+    public void setLastPortOfCall(String lastPortOfCall) { this.lastPortOfCall = lastPortOfCall; }
+
+    public String getNextPortOfCall() { return nextPortOfCall; }
+    public void setNextPortOfCall(String nextPortOfCall) { this.nextPortOfCall = nextPortOfCall; }
+
+    public LocalDateTime getEstimatedArrival() { return estimatedArrival; }
+    public void setEstimatedArrival(LocalDateTime estimatedArrival) { this.estimatedArrival = estimatedArrival; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,18 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedVesselRepository extends JpaRepository<ArchivedVessel, Long> {
+
+    // The vessel that carried the number most recently, should several have been archived with it
+    Optional<ArchivedVessel> findFirstByImoNumberOrderByArchivedAtDesc(String imoNumber);
+
+    @Query("SELECT a FROM ArchivedVessel a WHERE a.name LIKE %:name% ORDER BY a.id")
+    List<ArchivedVessel> findByNameContaining(@Param("name") String name);
+}
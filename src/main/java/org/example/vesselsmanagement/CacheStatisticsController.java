@@ -0,0 +1,61 @@
+package org.example.vesselsmanagement;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Second-level and query cache diagnostics")
+public class CacheStatisticsController {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @GetMapping("/statistics")
+    @Operation(summary = "Get cache region statistics", description = "Hit, miss and put counts per second-level and query cache region")
+    public ResponseEntity<Map<String, RegionStatistics>> getCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, new RegionStatistics(region));
+            }
+        }
+        return ResponseEntity.ok(regions);
+    }
+
+    public static class RegionStatistics {
+        private long hitCount;
+        private long missCount;
+        private long putCount;
+        private long elementCountInMemory;
+
+        public RegionStatistics(CacheRegionStatistics region) {
+            this.hitCount = region.getHitCount();
+            this.missCount = region.getMissCount();
+            this.putCount = region.getPutCount();
+            this.elementCountInMemory = region.getElementCountInMemory();
+        }
+
+        // Getters
+        public long getHitCount() { return hitCount; }
+
+        public long getMissCount() { return missCount; }
+
+        public long getPutCount() { return putCount; }
+
+        public long getElementCountInMemory() { return elementCountInMemory; }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.vesselsmanagement;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfiguration {
+
+    // Bound like Boot's own Hikari pool, so spring.datasource.hikari.* still applies to the primary
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(dataSourceProperties.getName())) {
+            primary.setPoolName(dataSourceProperties.getName());
+        }
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSourceProperties replicaProperties) {
+        if (replicaProperties.getReplicas().isEmpty()) {
+            return primaryDataSource;
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, ReadWriteRoutingDataSource.createReplicas(replicaProperties), replicaProperties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<DataSourceRoutingFilter> dataSourceRoutingFilter() {
+        return new FilterRegistrationBean<>(new DataSourceRoutingFilter());
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.vesselsmanagement;
+
+/**
+ * Identifies the client on whose behalf the current thread runs, so that reads issued after
+ * that client's own writes can be kept on the primary.
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<String> CLIENT_ID = new ThreadLocal<>();
+
+    private DataSourceRoutingContext() {}
+
+    public static void setClientId(String clientId) {
+        CLIENT_ID.set(clientId);
+    }
+
+    public static void clear() {
+        CLIENT_ID.remove();
+    }
+
+    public static String currentClientId() {
+        String clientId = CLIENT_ID.get();
+        return clientId != null ? clientId : "thread:" + Thread.currentThread().getId();
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.vesselsmanagement;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/snapshots")
+@Tag(name = "Snapshots", description = "Binary fleet snapshot export and restore")
+public class FleetSnapshotController {
+
+    @Autowired
+    private FleetSnapshotService fleetSnapshotService;
+
+    @GetMapping
+    @Operation(summary = "List snapshots", description = "List the snapshot files stored on this server")
+    public ResponseEntity<List<FleetSnapshotInfo>> listSnapshots() {
+        return ResponseEntity.ok(fleetSnapshotService.listSnapshots());
+    }
+
+    @PostMapping("/{name}")
+    @Operation(summary = "Export snapshot", description = "Write all vessels to a named snapshot file on this server")
+    public ResponseEntity<FleetSnapshotInfo> exportSnapshot(@PathVariable String name) {
+        return new ResponseEntity<>(fleetSnapshotService.exportSnapshot(name), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{name}")
+    @Operation(summary = "Download snapshot", description = "Download a snapshot file, e.g. to restore it in another environment")
+    public ResponseEntity<Resource> downloadSnapshot(@PathVariable String name) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "\"")
+                .body(new FileSystemResource(fleetSnapshotService.getSnapshotFile(name)));
+    }
+
+    @PutMapping(value = "/{name}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Upload snapshot", description = "Store a snapshot file taken elsewhere under the given name")
+    public ResponseEntity<FleetSnapshotInfo> uploadSnapshot(@PathVariable String name, InputStream content) throws IOException {
+        try (content) {
+            return ResponseEntity.ok(fleetSnapshotService.storeSnapshot(name, content));
+        }
+    }
+
+    @PostMapping("/{name}/restore")
+    @Operation(summary = "Restore snapshot", description = "Replace all vessels with the contents of a snapshot")
+    public ResponseEntity<FleetSnapshotInfo> restoreSnapshot(@PathVariable String name) {
+        return ResponseEntity.ok(fleetSnapshotService.restoreSnapshot(name));
+    }
+}
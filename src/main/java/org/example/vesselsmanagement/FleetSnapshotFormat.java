@@ -0,0 +1,74 @@
+package org.example.vesselsmanagement;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Layout of a binary fleet snapshot, version 1. All values are big-endian.
+ *
+ * <pre>
+ * header   64 bytes  magic "VSLSNAP\0", format version, row width, row count,
+ *                    rows offset, string table offset and length, creation time
+ * rows     row count x row width bytes, one fixed-width row per vessel ordered by id
+ * strings  [int length][UTF-8 bytes] entries; rows refer to them by byte offset
+ * </pre>
+ *
+ * String columns hold a string table offset or {@link #NULL_REF}; nullable numbers use
+ * {@link #NULL_INT}, NaN and {@link #NULL_TIME}. Timestamps are microseconds since
+ * 1970-01-01T00:00 in the application's local time. Readers skip columns beyond the row
+ * width they know, so later versions may append columns.
+ */
+final class FleetSnapshotFormat {
+
+    static final byte[] MAGIC = {'V', 'S', 'L', 'S', 'N', 'A', 'P', 0};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    static final int ID = 0;
+    static final int NAME = 8;
+    static final int IMO_NUMBER = 12;
+    static final int TYPE = 16;
+    static final int FLAG_STATE = 20;
+    static final int STATUS = 24;
+    static final int YEAR_BUILT = 28;
+    static final int LENGTH_METERS = 32;
+    static final int GROSS_TONNAGE = 40;
+    static final int LAST_PORT_OF_CALL = 48;
+    static final int NEXT_PORT_OF_CALL = 52;
+    static final int ESTIMATED_ARRIVAL = 56;
+    static final int CREATED_AT = 64;
+    static final int UPDATED_AT = 72;
+    static final int ROW_WIDTH = 80;
+
+    static final int NULL_REF = -1;
+    static final int NULL_INT = Integer.MIN_VALUE;
+    static final long NULL_TIME = Long.MIN_VALUE;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private FleetSnapshotFormat() {
+    }
+
+    static long encodeTime(LocalDateTime time) {
+        return time == null ? NULL_TIME : ChronoUnit.MICROS.between(EPOCH, time);
+    }
+
+    static LocalDateTime decodeTime(long micros) {
+        return micros == NULL_TIME ? null : EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    static ByteBuffer header(long rowCount, long stringsOffset, long stringsLength, long createdAtMillis) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(ROW_WIDTH);
+        header.putLong(rowCount);
+        header.putLong(HEADER_SIZE);
+        header.putLong(stringsOffset);
+        header.putLong(stringsLength);
+        header.putLong(createdAtMillis);
+        header.putLong(0);
+        return header.flip();
+    }
+}
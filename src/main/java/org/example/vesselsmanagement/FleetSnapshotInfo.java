@@ -0,0 +1,52 @@
+package org.example.vesselsmanagement;
+
+import java.time.LocalDateTime;
+
+public class FleetSnapshotInfo {
+    private String name;
+    private int formatVersion;
+    private long vesselCount;
+    private long sizeBytes;
+    private LocalDateTime createdAt;
+    private long durationMillis;
+    // Set by restores: transactions used and the most vessels written by one of them
+    private int chunks;
+    private int largestChunk;
+
+    public FleetSnapshotInfo() {}
+
+    public FleetSnapshotInfo(String name, int formatVersion, long vesselCount, long sizeBytes,
+                             LocalDateTime createdAt, long durationMillis) {
+        this.name = name;
+        this.formatVersion = formatVersion;
+        this.vesselCount = vesselCount;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+        this.durationMillis = durationMillis;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getFormatVersion() { return formatVersion; }
+    public void setFormatVersion(int formatVersion) { this.formatVersion = formatVersion; }
+
+    public long getVesselCount() { return vesselCount; }
+    public void setVesselCount(long vesselCount) { this.vesselCount = vesselCount; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public long getDurationMillis() { return durationMillis; }
+    public void setDurationMillis(long durationMillis) { this.durationMillis = durationMillis; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public int getLargestChunk() { return largestChunk; }
+    public void setLargestChunk(int largestChunk) { this.largestChunk = largestChunk; }
+}
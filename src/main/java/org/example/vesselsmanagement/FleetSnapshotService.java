@@ -0,0 +1,634 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jdbc.Work;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.example.vesselsmanagement.FleetSnapshotFormat.*;
+
+/**
+ * Exports the vessels table to a {@link FleetSnapshotFormat} file and restores it. Export streams
+ * rows from the database into the file and restore reads a memory-mapped file into JDBC insert
+ * batches, so heap use does not grow with the fleet. A restore replaces the fleet in bounded,
+ * separately committed chunks, keeps vessel ids and records the replacement in the version history.
+ */
+@Service
+public class FleetSnapshotService {
+
+    static final int INSERT_BATCH_SIZE = 1000;
+    private static final int STRING_CACHE_SIZE = 65536;
+    private static final String PARTIAL_SUFFIX = ".partial";
+    // Names ending in the partial suffix are reserved for exports and uploads still being written
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("(?!.*\\.partial$)[A-Za-z0-9][A-Za-z0-9._-]{0,99}");
+
+    private static final String COLUMNS = "id, name, imo_number, type, flag_state, status, year_built, length_meters, "
+            + "gross_tonnage, last_port_of_call, next_port_of_call, estimated_arrival, created_at, updated_at";
+
+    private static final Set<String> STAGED_COLUMNS = Set.of(COLUMNS.split(", "));
+
+    private static final String SELECT_VESSELS_SQL = "SELECT " + COLUMNS + " FROM vessels ORDER BY id";
+
+    private static final String STAGING_TABLE = "vessel_restore_rows";
+
+    private static final String STAGE_VESSEL_SQL = "INSERT INTO " + STAGING_TABLE + " (" + COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String REQUIRED_COLUMNS_SQL = "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS "
+            + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'VESSELS' AND IS_NULLABLE = 'NO'";
+
+    private static final String NEXT_VESSEL_ID_SQL = "SELECT GREATEST("
+            + "(SELECT IDENTITY_BASE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = SCHEMA() "
+            + "AND TABLE_NAME = 'VESSELS' AND COLUMN_NAME = 'ID'), "
+            + "COALESCE((SELECT MAX(id) FROM vessels), 0) + 1, "
+            + "COALESCE((SELECT MAX(id) FROM " + STAGING_TABLE + "), 0) + 1, "
+            + "COALESCE((SELECT MAX(vessel_id) FROM vessel_versions), 0) + 1, "
+            + "COALESCE((SELECT MAX(id) FROM archived_vessels), 0) + 1)";
+
+    // Moves IMO numbers that the merge changes out of the way, so two vessels can swap numbers
+    private static final String PARK_IMO_NUMBERS_SQL = "UPDATE vessels v SET imo_number = CONCAT('~', v.id) "
+            + "WHERE v.id IN (:ids) AND v.imo_number <> (SELECT s.imo_number FROM " + STAGING_TABLE + " s WHERE s.id = v.id)";
+
+    // Snapshots carry no versions; live rows the merge updates move on from theirs
+    private static final String RAISE_VERSIONS_SQL = "UPDATE vessels SET version = version + 1 WHERE id IN (:ids)";
+
+    private static final String MERGE_STAGED_SQL = "MERGE INTO vessels (" + COLUMNS + ") KEY (id) "
+            + "SELECT " + COLUMNS + " FROM " + STAGING_TABLE + " WHERE id IN (:ids)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private VesselHistoryService vesselHistoryService;
+
+    @Autowired
+    private VesselChangeLog vesselChangeLog;
+
+    @Autowired
+    private VesselArchiveService vesselArchiveService;
+
+    @Autowired
+    private List<VesselCacheInvalidator> invalidators;
+
+    @Value("${vessels.snapshots.directory:snapshots}")
+    private Path directory;
+
+    @Value("${vessels.snapshots.restore-chunk-size:1000}")
+    private int chunkSize;
+
+    public List<FleetSnapshotInfo> listSnapshots() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<FleetSnapshotInfo> snapshots = new ArrayList<>();
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                if (SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches()) {
+                    snapshots.add(describe(file));
+                }
+            }
+            return snapshots;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public Path getSnapshotFile(String name) {
+        Path file = resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new SnapshotNotFoundException("Snapshot not found: " + name);
+        }
+        return file;
+    }
+
+    @Transactional(readOnly = true)
+    public FleetSnapshotInfo exportSnapshot(String name) {
+        Path target = resolve(name);
+        try {
+            Files.createDirectories(directory);
+            Path partial = directory.resolve(name + PARTIAL_SUFFIX);
+            FleetSnapshotInfo info = exportSnapshot(partial);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            info.setName(name);
+            return info;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public FleetSnapshotInfo exportSnapshot(Path target) {
+        long start = System.nanoTime();
+        long createdAt = System.currentTimeMillis();
+        Path stringsFile = null;
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            stringsFile = Files.createTempFile(target.toAbsolutePath().getParent(), "strings", ".tmp");
+            long rowCount;
+            long stringsLength;
+            try (StringTableWriter strings = new StringTableWriter(stringsFile)) {
+                channel.position(HEADER_SIZE);
+                DataOutputStream rows = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                rowCount = entityManager.unwrap(Session.class).doReturningWork(connection -> writeRows(connection, rows, strings));
+                rows.flush();
+                stringsLength = strings.finish();
+            }
+            long stringsOffset = HEADER_SIZE + rowCount * ROW_WIDTH;
+            try (FileChannel stringsChannel = FileChannel.open(stringsFile, StandardOpenOption.READ)) {
+                for (long copied = 0; copied < stringsLength; ) {
+                    copied += stringsChannel.transferTo(copied, stringsLength - copied, channel);
+                }
+            }
+            channel.write(header(rowCount, stringsOffset, stringsLength, createdAt), 0);
+            channel.force(false);
+            return new FleetSnapshotInfo(target.getFileName().toString(), VERSION, rowCount, channel.size(),
+                    toLocalDateTime(createdAt), elapsedMillis(start));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            deleteQuietly(stringsFile);
+        }
+    }
+
+    public FleetSnapshotInfo storeSnapshot(String name, InputStream content) {
+        Path target = resolve(name);
+        try {
+            Files.createDirectories(directory);
+            Path partial = directory.resolve(name + PARTIAL_SUFFIX);
+            Files.copy(content, partial, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                describe(partial);
+            } catch (RuntimeException ex) {
+                deleteQuietly(partial);
+                throw ex;
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return describe(target);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public FleetSnapshotInfo restoreSnapshot(String name) {
+        FleetSnapshotInfo info = restoreSnapshot(getSnapshotFile(name));
+        info.setName(name);
+        return info;
+    }
+
+    /**
+     * Replaces the fleet with the snapshot in committed chunks of
+     * {@code vessels.snapshots.restore-chunk-size} rows. The whole file is loaded into a staging
+     * table first, so a corrupt file leaves the fleet untouched. Live vessels missing from the
+     * snapshot are then deleted and the staged rows merged in, each chunk with its history; until
+     * the last chunk commits, readers see a mix of the old and the restored fleet.
+     */
+    public synchronized FleetSnapshotInfo restoreSnapshot(Path source) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            MappedByteBuffer rows = channel.map(FileChannel.MapMode.READ_ONLY, header.rowsOffset(),
+                    header.rowCount() * header.rowWidth());
+            StringTableReader strings = new StringTableReader(channel.map(FileChannel.MapMode.READ_ONLY,
+                    header.stringsOffset(), header.stringsLength()));
+
+            LocalDateTime restoredAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            RestoreProgress progress = new RestoreProgress();
+            try {
+                doWork(this::createStagingTable);
+                try {
+                    for (long row = 0; row < header.rowCount(); row += chunkSize) {
+                        long from = row;
+                        long to = Math.min(row + chunkSize, header.rowCount());
+                        doWork(connection -> stageRows(connection, header, rows, strings, from, to));
+                        progress.chunkDone((int) (to - from));
+                    }
+                } catch (ConstraintViolationException ex) {
+                    throw new IllegalArgumentException("Snapshot " + source.getFileName() + " is corrupt: "
+                            + ex.getSQLException().getMessage(), ex);
+                }
+                doWork(this::restartIdentity);
+                removeMissingVessels(restoredAt, progress);
+                applyStagedVessels(restoredAt, progress);
+                transactionTemplate.executeWithoutResult(status -> {
+                    vesselArchiveService.discardArchivedLiveVessels();
+                    vesselChangeLog.recordFleetChange();
+                    afterCommit(() -> invalidators.forEach(VesselCacheInvalidator::invalidateAll));
+                });
+            } finally {
+                doWork(connection -> execute(connection, "DROP TABLE IF EXISTS " + STAGING_TABLE));
+            }
+
+            FleetSnapshotInfo info = new FleetSnapshotInfo(source.getFileName().toString(), header.version(),
+                    header.rowCount(), channel.size(), toLocalDateTime(header.createdAtMillis()), elapsedMillis(start));
+            info.setChunks(progress.chunks);
+            info.setLargestChunk(progress.largestChunk);
+            return info;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | NegativeArraySizeException ex) {
+            throw new IllegalArgumentException("Snapshot " + source.getFileName() + " is corrupt", ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long writeRows(Connection connection, DataOutputStream rows, StringTableWriter strings) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_VESSELS_SQL)) {
+            statement.setFetchSize(INSERT_BATCH_SIZE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                long count = 0;
+                while (resultSet.next()) {
+                    rows.writeLong(resultSet.getLong(1));
+                    for (int column = 2; column <= 6; column++) {
+                        rows.writeInt(strings.ref(resultSet.getString(column)));
+                    }
+                    int yearBuilt = resultSet.getInt(7);
+                    rows.writeInt(resultSet.wasNull() ? NULL_INT : yearBuilt);
+                    double lengthMeters = resultSet.getDouble(8);
+                    rows.writeDouble(resultSet.wasNull() ? Double.NaN : lengthMeters);
+                    double grossTonnage = resultSet.getDouble(9);
+                    rows.writeDouble(resultSet.wasNull() ? Double.NaN : grossTonnage);
+                    rows.writeInt(strings.ref(resultSet.getString(10)));
+                    rows.writeInt(strings.ref(resultSet.getString(11)));
+                    for (int column = 12; column <= 14; column++) {
+                        rows.writeLong(encodeTime(resultSet.getObject(column, LocalDateTime.class)));
+                    }
+                    count++;
+                }
+                return count;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void createStagingTable(Connection connection) throws SQLException {
+        execute(connection, "DROP TABLE IF EXISTS " + STAGING_TABLE);
+        execute(connection, "CREATE TABLE " + STAGING_TABLE + " AS SELECT " + COLUMNS + " FROM vessels WITH NO DATA");
+        // CREATE TABLE AS copies column types but no constraints; mirror the NOT NULL columns of vessels
+        List<String> required = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(REQUIRED_COLUMNS_SQL)) {
+            while (resultSet.next()) {
+                String column = resultSet.getString(1).toLowerCase(Locale.ROOT);
+                if (STAGED_COLUMNS.contains(column)) {
+                    required.add(column);
+                }
+            }
+        }
+        for (String column : required) {
+            execute(connection, "ALTER TABLE " + STAGING_TABLE + " ALTER COLUMN " + column + " SET NOT NULL");
+        }
+        execute(connection, "ALTER TABLE " + STAGING_TABLE + " ADD PRIMARY KEY (id)");
+        // Missing values, duplicate ids or IMO numbers fail here, before the fleet has been touched
+        execute(connection, "CREATE UNIQUE INDEX " + STAGING_TABLE + "_imo ON " + STAGING_TABLE + " (imo_number)");
+    }
+
+    private void stageRows(Connection connection, Header header, ByteBuffer rows, StringTableReader strings,
+                           long from, long to) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(STAGE_VESSEL_SQL)) {
+            for (long row = from; row < to; row++) {
+                int base = Math.toIntExact(row * header.rowWidth());
+                insert.setLong(1, rows.getLong(base + ID));
+                insert.setString(2, strings.get(rows.getInt(base + NAME)));
+                insert.setString(3, strings.get(rows.getInt(base + IMO_NUMBER)));
+                insert.setString(4, strings.get(rows.getInt(base + TYPE)));
+                insert.setString(5, strings.get(rows.getInt(base + FLAG_STATE)));
+                insert.setString(6, strings.get(rows.getInt(base + STATUS)));
+                int yearBuilt = rows.getInt(base + YEAR_BUILT);
+                insert.setObject(7, yearBuilt == NULL_INT ? null : yearBuilt, Types.INTEGER);
+                double lengthMeters = rows.getDouble(base + LENGTH_METERS);
+                insert.setObject(8, Double.isNaN(lengthMeters) ? null : lengthMeters, Types.DOUBLE);
+                double grossTonnage = rows.getDouble(base + GROSS_TONNAGE);
+                insert.setObject(9, Double.isNaN(grossTonnage) ? null : grossTonnage, Types.DOUBLE);
+                insert.setString(10, strings.get(rows.getInt(base + LAST_PORT_OF_CALL)));
+                insert.setString(11, strings.get(rows.getInt(base + NEXT_PORT_OF_CALL)));
+                insert.setTimestamp(12, timestamp(rows.getLong(base + ESTIMATED_ARRIVAL)));
+                insert.setTimestamp(13, timestamp(rows.getLong(base + CREATED_AT)));
+                insert.setTimestamp(14, timestamp(rows.getLong(base + UPDATED_AT)));
+                insert.addBatch();
+                if ((row - from + 1) % INSERT_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Explicit ids don't advance the identity column. New vessels must get an id that was never
+     * used: not by the snapshot, nor by vessels created since it was taken (still in the history
+     * or the archive), nor by any id the column has already handed out.
+     */
+    private void restartIdentity(Connection connection) throws SQLException {
+        long nextId;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(NEXT_VESSEL_ID_SQL)) {
+            resultSet.next();
+            nextId = resultSet.getLong(1);
+        }
+        execute(connection, "ALTER TABLE vessels ALTER COLUMN id RESTART WITH " + nextId);
+    }
+
+    // Deletes live vessels that are not in the snapshot, walking the live ids one chunk per transaction
+    private void removeMissingVessels(LocalDateTime restoredAt, RestoreProgress progress) {
+        long afterId = 0;
+        while (true) {
+            long fromId = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = idsAfter("vessels", fromId);
+                if (!chunk.isEmpty()) {
+                    long toId = chunk.get(chunk.size() - 1);
+                    nativeQuery("DELETE FROM vessel_positions WHERE vessel_id > :afterId AND vessel_id <= :toId",
+                            VesselPosition.class).setParameter("afterId", fromId).setParameter("toId", toId).executeUpdate();
+                    nativeQuery("DELETE FROM vessels v WHERE v.id > :afterId AND v.id <= :toId AND NOT EXISTS "
+                            + "(SELECT 1 FROM " + STAGING_TABLE + " s WHERE s.id = v.id)", Vessel.class)
+                            .setParameter("afterId", fromId).setParameter("toId", toId).executeUpdate();
+                    vesselHistoryService.recordRemovedVessels(restoredAt, fromId, toId);
+                }
+                return chunk;
+            });
+            if (ids.isEmpty()) {
+                return;
+            }
+            progress.chunkDone(ids.size());
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    // Merges the staged rows into the live table, walking the staged ids one chunk per transaction
+    private void applyStagedVessels(LocalDateTime restoredAt, RestoreProgress progress) {
+        long afterId = 0;
+        while (true) {
+            long fromId = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> idsAfter(STAGING_TABLE, fromId));
+            if (ids.isEmpty()) {
+                return;
+            }
+            int applied = transactionTemplate.execute(status -> {
+                Set<Long> chunk = new LinkedHashSet<>(ids);
+                // Live vessels holding an IMO number the chunk restores, e.g. after two vessels swapped
+                // numbers, are restored along with it so the unique constraint holds after the merge
+                for (List<Long> holders = imoHolders(chunk); !holders.isEmpty(); holders = imoHolders(chunk)) {
+                    chunk.addAll(holders);
+                }
+                nativeQuery(PARK_IMO_NUMBERS_SQL, Vessel.class).setParameter("ids", chunk).executeUpdate();
+                nativeQuery(RAISE_VERSIONS_SQL, Vessel.class).setParameter("ids", chunk).executeUpdate();
+                nativeQuery(MERGE_STAGED_SQL, Vessel.class).setParameter("ids", chunk).executeUpdate();
+                vesselHistoryService.recordVersions(restoredAt, chunk);
+                return chunk.size();
+            });
+            progress.chunkDone(applied);
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private List<Long> idsAfter(String table, long afterId) {
+        List<?> ids = entityManager.createNativeQuery("SELECT id FROM " + table + " WHERE id > :afterId ORDER BY id")
+                .setParameter("afterId", afterId)
+                .setMaxResults(chunkSize)
+                .getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    private List<Long> imoHolders(Set<Long> chunk) {
+        List<?> holders = entityManager.createNativeQuery("SELECT v.id FROM vessels v JOIN " + STAGING_TABLE
+                        + " s ON s.imo_number = v.imo_number WHERE s.id IN (:ids) AND v.id <> s.id")
+                .setParameter("ids", chunk)
+                .getResultList();
+        return holders.stream().map(id -> ((Number) id).longValue()).filter(id -> !chunk.contains(id)).toList();
+    }
+
+    private NativeQuery<?> nativeQuery(String sql, Class<?> synchronizedEntity) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(synchronizedEntity);
+        return query;
+    }
+
+    private void doWork(Work work) {
+        transactionTemplate.executeWithoutResult(status -> entityManager.unwrap(Session.class).doWork(work));
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private FleetSnapshotInfo describe(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            return new FleetSnapshotInfo(file.getFileName().toString(), header.version(), header.rowCount(),
+                    channel.size(), toLocalDateTime(header.createdAtMillis()), 0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Header readHeader(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            throw new IllegalArgumentException("Not a fleet snapshot: file is too short");
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a fleet snapshot: bad magic number");
+        }
+        Header header = new Header(buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getLong(),
+                buffer.getLong(), buffer.getLong(), buffer.getLong());
+        if (header.version() != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot format version " + header.version());
+        }
+        if (header.rowWidth() < ROW_WIDTH || header.rowCount() < 0
+                || header.rowCount() > (Integer.MAX_VALUE - header.rowWidth()) / header.rowWidth()
+                || header.stringsLength() < 0 || header.stringsLength() > Integer.MAX_VALUE
+                || header.rowsOffset() + header.rowCount() * header.rowWidth() > size
+                || header.stringsOffset() + header.stringsLength() > size) {
+            throw new IllegalArgumentException("Snapshot header is corrupt or describes regions larger than 2 GB");
+        }
+        return header;
+    }
+
+    private Path resolve(String name) {
+        if (name == null || !SNAPSHOT_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Snapshot names may only contain letters, digits, '.', '_' and '-' "
+                    + "and may not end in " + PARTIAL_SUFFIX);
+        }
+        return directory.resolve(name);
+    }
+
+    private static Timestamp timestamp(long micros) {
+        LocalDateTime time = decodeTime(micros);
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Leftover temporary file; nothing else to clean up
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class RestoreProgress {
+        private int chunks;
+        private int largestChunk;
+
+        void chunkDone(int rows) {
+            chunks++;
+            largestChunk = Math.max(largestChunk, rows);
+        }
+    }
+
+    private record Header(int version, int rowWidth, long rowCount, long rowsOffset, long stringsOffset,
+                          long stringsLength, long createdAtMillis) {
+    }
+
+    /**
+     * Appends strings to a temporary file and hands out their offsets. Repeated values (flag
+     * states, ports, types) are written once while they stay in a bounded LRU map.
+     */
+    private static final class StringTableWriter implements AutoCloseable {
+        private final DataOutputStream out;
+        private final Map<String, Integer> recent = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > STRING_CACHE_SIZE;
+            }
+        };
+        private long length;
+
+        StringTableWriter(Path file) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        }
+
+        int ref(String value) throws IOException {
+            if (value == null) {
+                return NULL_REF;
+            }
+            Integer cached = recent.get(value);
+            if (cached != null) {
+                return cached;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (length + Integer.BYTES + bytes.length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot string table exceeds 2 GB");
+            }
+            int offset = (int) length;
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            length += Integer.BYTES + bytes.length;
+            recent.put(value, offset);
+            return offset;
+        }
+
+        long finish() throws IOException {
+            out.flush();
+            return length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static final class StringTableReader {
+        private final ByteBuffer strings;
+        private final Map<Integer, String> decoded = new HashMap<>();
+
+        StringTableReader(ByteBuffer strings) {
+            this.strings = strings;
+        }
+
+        String get(int ref) {
+            if (ref == NULL_REF) {
+                return null;
+            }
+            String value = decoded.get(ref);
+            if (value == null) {
+                int length = strings.getInt(ref);
+                byte[] bytes = new byte[length];
+                strings.get(ref + Integer.BYTES, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                if (decoded.size() >= STRING_CACHE_SIZE) {
+                    decoded.clear();
+                }
+                decoded.put(ref, value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.util.Collection;
+
+@Component
+public class HibernateCacheInvalidator implements VesselCacheInvalidator {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void invalidateVessels(Collection<Long> vesselIds) {
+        Cache cache = cache();
+        vesselIds.forEach(id -> cache.evictEntityData(Vessel.class, id));
+        // Query results are validated against this node's update timestamps, which a write on
+        // another node never touches, so cached filter and count results have to go as well
+        cache.evictQueryRegion(VesselRepository.QUERY_CACHE_REGION);
+        cache.evictDefaultQueryRegion();
+    }
+
+    @Override
+    public void invalidateAll() {
+        Cache cache = cache();
+        cache.evictEntityData(Vessel.class);
+        cache.evictQueryRegion(VesselRepository.QUERY_CACHE_REGION);
+        cache.evictDefaultQueryRegion();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,4 @@
+package org.example.vesselsmanagement;
+
+public record NearbyVessel(TrackedVessel vessel, double distanceKm) {
+}
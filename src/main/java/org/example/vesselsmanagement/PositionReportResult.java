@@ -0,0 +1,25 @@
+package org.example.vesselsmanagement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PositionReportResult {
+    private int accepted;
+    private List<Long> unknownVesselIds;
+
+    public PositionReportResult() {
+        this.unknownVesselIds = new ArrayList<>();
+    }
+
+    public PositionReportResult(int accepted, List<Long> unknownVesselIds) {
+        this.accepted = accepted;
+        this.unknownVesselIds = unknownVesselIds;
+    }
+
+    // Getters and Setters
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+
+    public List<Long> getUnknownVesselIds() { return unknownVesselIds; }
+    public void setUnknownVesselIds(List<Long> unknownVesselIds) { this.unknownVesselIds = unknownVesselIds; }
+}
@@ -0,0 +1,135 @@
+package org.example.vesselsmanagement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wires the reactive read API. The R2DBC pool is deliberately not exposed as a
+ * {@code ConnectionFactory} bean so Spring Boot keeps JDBC as the primary data access
+ * path and runs schema/data initialization only once, against the DataSource. Off unless
+ * {@code vessels.reactive.enabled} is set, since it opens a second port.
+ */
+@Configuration
+@ConditionalOnProperty(name = "vessels.reactive.enabled", havingValue = "true")
+public class ReactiveVesselConfiguration {
+
+    private static final List<String> URL_DRIVERS = List.of("postgresql", "mysql", "mariadb");
+
+    @Bean
+    public ReactiveVesselRepository reactiveVesselRepository(
+            @Value("${vessels.reactive.r2dbc-url:}") String configuredUrl,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${vessels.reactive.max-connections:10}") int maxConnections) {
+        String url = r2dbcUrl(configuredUrl, jdbcUrl);
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        ConnectionPool connectionPool = new ConnectionPool(
+                ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                        .maxSize(maxConnections)
+                        .build());
+        return new ReactiveVesselRepository(connectionPool);
+    }
+
+    @Bean
+    public ReactiveVesselHandler reactiveVesselHandler(ReactiveVesselRepository reactiveVesselRepository,
+                                                       VesselJsonCache vesselJsonCache) {
+        return new ReactiveVesselHandler(reactiveVesselRepository, vesselJsonCache);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveVesselRoutes(ReactiveVesselHandler handler) {
+        return RouterFunctions.route()
+                .path("/api/vessels", builder -> builder
+                        .GET("", handler::getAllVessels)
+                        .GET("/search", handler::searchVessels)
+                        .GET("/imo/{imoNumber}", handler::getVesselByImoNumber)
+                        .GET("/type/{type}", handler::getVesselsByType)
+                        .GET("/status/{status}", handler::getVesselsByStatus)
+                        .GET("/flag/{flagState}", handler::getVesselsByFlagState)
+                        .GET("/statistics/count-by-type/{type}", handler::getVesselCountByType)
+                        .GET("/{id}", handler::getVesselById))
+                // Deferring turns exceptions thrown while parsing the request into error signals
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(IllegalArgumentException.class, ex -> handler.handleBadRequest(ex, request)))
+                .build();
+    }
+
+    @Bean
+    public ReactiveVesselServer reactiveVesselServer(RouterFunction<ServerResponse> reactiveVesselRoutes,
+                                                     ObjectMapper objectMapper,
+                                                     @Value("${vessels.reactive.port:8081}") int port) {
+        HandlerStrategies handlerStrategies = HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(
+                            new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        return new ReactiveVesselServer(reactiveVesselRoutes, handlerStrategies, port);
+    }
+
+    /**
+     * Derives the R2DBC URL from {@code spring.datasource.url}, so both APIs read the same database.
+     * An explicit URL is used as given, but must name the same database when one can be derived.
+     */
+    static String r2dbcUrl(String configuredUrl, String jdbcUrl) {
+        String derived = deriveR2dbcUrl(jdbcUrl);
+        if (!StringUtils.hasText(configuredUrl)) {
+            if (derived == null) {
+                throw new IllegalStateException("Cannot derive an R2DBC URL from spring.datasource.url " + jdbcUrl
+                        + "; set vessels.reactive.r2dbc-url");
+            }
+            return derived;
+        }
+        if (derived != null && !database(configuredUrl).equals(database(derived))) {
+            throw new IllegalStateException("vessels.reactive.r2dbc-url " + configuredUrl
+                    + " does not point at spring.datasource.url " + jdbcUrl);
+        }
+        return configuredUrl;
+    }
+
+    // Covers in-memory H2 and the drivers whose JDBC and R2DBC URLs share the host/database form;
+    // H2 settings after ';' are not carried over
+    private static String deriveR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:")) {
+            return null;
+        }
+        String url = jdbcUrl.substring("jdbc:".length());
+        if (url.startsWith("h2:mem:")) {
+            return "r2dbc:h2:mem:///" + url.substring("h2:mem:".length()).split(";", 2)[0];
+        }
+        int scheme = url.indexOf("://");
+        return scheme > 0 && URL_DRIVERS.contains(url.substring(0, scheme)) ? "r2dbc:" + url : null;
+    }
+
+    // Driver, host, port and database name, ignoring a pool wrapper and query options
+    private static List<Object> database(String url) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url);
+        String driver = options.getValue(ConnectionFactoryOptions.DRIVER)
+                + (options.hasOption(ConnectionFactoryOptions.PROTOCOL) ? ":" + options.getValue(ConnectionFactoryOptions.PROTOCOL) : "");
+        return Arrays.asList(driver.replaceFirst("^pool:", ""), options.getValue(ConnectionFactoryOptions.HOST),
+                options.getValue(ConnectionFactoryOptions.PORT), options.getValue(ConnectionFactoryOptions.DATABASE));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.vesselsmanagement;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.LocalDateTime;
+
+public class ReactiveVesselHandler {
+
+    private final ReactiveVesselRepository reactiveVesselRepository;
+    private final VesselJsonCache vesselJsonCache;
+
+    public ReactiveVesselHandler(ReactiveVesselRepository reactiveVesselRepository, VesselJsonCache vesselJsonCache) {
+        this.reactiveVesselRepository = reactiveVesselRepository;
+        this.vesselJsonCache = vesselJsonCache;
+    }
+
+    public Mono<ServerResponse> getAllVessels(ServerRequest request) {
+        int page = Integer.parseInt(request.queryParam("page").orElse("0"));
+        int size = Integer.parseInt(request.queryParam("size").orElse("10"));
+        String sortBy = request.queryParam("sortBy").orElse("name");
+        boolean descending = request.queryParam("sortDir").orElse("asc").equalsIgnoreCase("desc");
+        return stream(request, reactiveVesselRepository.findAll(page, size, sortBy, descending));
+    }
+
+    public Mono<ServerResponse> getVesselById(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        return single(reactiveVesselRepository.findById(id), "Vessel not found with id: " + id);
+    }
+
+    public Mono<ServerResponse> getVesselByImoNumber(ServerRequest request) {
+        String imoNumber = request.pathVariable("imoNumber");
+        return single(reactiveVesselRepository.findByImoNumber(imoNumber), "Vessel not found with IMO number: " + imoNumber);
+    }
+
+    public Mono<ServerResponse> searchVessels(ServerRequest request) {
+        String name = request.queryParam("name")
+                .orElseThrow(() -> new IllegalArgumentException("Required parameter 'name' is not present"));
+        return stream(request, reactiveVesselRepository.findByNameContaining(name));
+    }
+
+    public Mono<ServerResponse> getVesselsByType(ServerRequest request) {
+        VesselType type = VesselType.valueOf(request.pathVariable("type"));
+        return stream(request, reactiveVesselRepository.findByType(type));
+    }
+
+    public Mono<ServerResponse> getVesselsByStatus(ServerRequest request) {
+        VesselStatus status = VesselStatus.valueOf(request.pathVariable("status"));
+        return stream(request, reactiveVesselRepository.findByStatus(status));
+    }
+
+    public Mono<ServerResponse> getVesselsByFlagState(ServerRequest request) {
+        return stream(request, reactiveVesselRepository.findByFlagState(request.pathVariable("flagState")));
+    }
+
+    public Mono<ServerResponse> getVesselCountByType(ServerRequest request) {
+        VesselType type = VesselType.valueOf(request.pathVariable("type"));
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(reactiveVesselRepository.countByType(type), Long.class);
+    }
+
+    public Mono<ServerResponse> handleBadRequest(Throwable ex, ServerRequest request) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    // Clients asking for application/x-ndjson get one vessel per line; everyone else gets a JSON
+    // array. Both are encoded element by element as rows arrive.
+    private Mono<ServerResponse> stream(ServerRequest request, Flux<Vessel> vessels) {
+        MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(contentType).body(vessels.map(vesselJsonCache::toJson), RawValue.class);
+    }
+
+    private Mono<ServerResponse> single(Mono<Vessel> vessel, String notFoundMessage) {
+        return vessel.map(vesselJsonCache::toJson)
+                .flatMap(json -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(json))
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND, notFoundMessage)));
+    }
+
+    private Mono<ServerResponse> error(HttpStatus status, String message) {
+        GlobalExceptionHandler.ErrorResponse error = new GlobalExceptionHandler.ErrorResponse(
+                status.value(),
+                message,
+                LocalDateTime.now()
+        );
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(error);
+    }
+}
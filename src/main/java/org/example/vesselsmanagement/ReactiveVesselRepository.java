@@ -0,0 +1,132 @@
+package org.example.vesselsmanagement;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Non-blocking read access to the {@code vessels} table over R2DBC. Rows are emitted as the
+ * subscriber requests them, so a slow HTTP client throttles the query instead of the whole
+ * result being buffered in memory.
+ */
+public class ReactiveVesselRepository implements DisposableBean {
+
+    private static final String SELECT_VESSELS = "SELECT id, name, imo_number, type, flag_state, year_built, "
+            + "length_meters, gross_tonnage, status, last_port_of_call, next_port_of_call, estimated_arrival, "
+            + "created_at, updated_at FROM vessels";
+
+    private static final Map<String, String> SORTABLE_COLUMNS = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("name", "name"),
+            Map.entry("imoNumber", "imo_number"),
+            Map.entry("type", "type"),
+            Map.entry("flagState", "flag_state"),
+            Map.entry("yearBuilt", "year_built"),
+            Map.entry("lengthMeters", "length_meters"),
+            Map.entry("grossTonnage", "gross_tonnage"),
+            Map.entry("status", "status"),
+            Map.entry("createdAt", "created_at"),
+            Map.entry("updatedAt", "updated_at"));
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveVesselRepository(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    public Mono<Vessel> findById(Long id) {
+        return databaseClient.sql(SELECT_VESSELS + " WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> mapRow(row))
+                .one();
+    }
+
+    public Mono<Vessel> findByImoNumber(String imoNumber) {
+        return databaseClient.sql(SELECT_VESSELS + " WHERE imo_number = :imoNumber")
+                .bind("imoNumber", imoNumber)
+                .map((row, metadata) -> mapRow(row))
+                .one();
+    }
+
+    public Flux<Vessel> findByType(VesselType type) {
+        return databaseClient.sql(SELECT_VESSELS + " WHERE type = :type ORDER BY id")
+                .bind("type", type.name())
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    public Flux<Vessel> findByStatus(VesselStatus status) {
+        return databaseClient.sql(SELECT_VESSELS + " WHERE status = :status ORDER BY id")
+                .bind("status", status.name())
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    public Flux<Vessel> findByFlagState(String flagState) {
+        return databaseClient.sql(SELECT_VESSELS + " WHERE flag_state = :flagState ORDER BY id")
+                .bind("flagState", flagState)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    public Flux<Vessel> findByNameContaining(String name) {
+        return databaseClient.sql(SELECT_VESSELS + " WHERE name LIKE :name ORDER BY id")
+                .bind("name", "%" + name + "%")
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    public Flux<Vessel> findAll(int page, int size, String sortBy, boolean descending) {
+        String column = SORTABLE_COLUMNS.get(sortBy);
+        if (column == null) {
+            throw new IllegalArgumentException("Cannot sort vessels by " + sortBy);
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must not be negative and size must be positive");
+        }
+        String order = " ORDER BY " + column + (descending ? " DESC" : " ASC") + ", id";
+        return databaseClient.sql(SELECT_VESSELS + order + " LIMIT :limit OFFSET :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map((row, metadata) -> mapRow(row))
+                .all();
+    }
+
+    public Mono<Long> countByType(VesselType type) {
+        return databaseClient.sql("SELECT COUNT(*) AS total FROM vessels WHERE type = :type")
+                .bind("type", type.name())
+                .map((row, metadata) -> row.get("total", Long.class))
+                .one();
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private static Vessel mapRow(Row row) {
+        Vessel vessel = new Vessel();
+        vessel.setId(row.get("id", Long.class));
+        vessel.setName(row.get("name", String.class));
+        vessel.setImoNumber(row.get("imo_number", String.class));
+        vessel.setType(VesselType.valueOf(row.get("type", String.class)));
+        vessel.setFlagState(row.get("flag_state", String.class));
+        vessel.setYearBuilt(row.get("year_built", Integer.class));
+        vessel.setLengthMeters(row.get("length_meters", Double.class));
+        vessel.setGrossTonnage(row.get("gross_tonnage", Double.class));
+        vessel.setStatus(VesselStatus.valueOf(row.get("status", String.class)));
+        vessel.setLastPortOfCall(row.get("last_port_of_call", String.class));
+        vessel.setNextPortOfCall(row.get("next_port_of_call", String.class));
+        vessel.setEstimatedArrival(row.get("estimated_arrival", LocalDateTime.class));
+        vessel.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        vessel.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        return vessel;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Runs the reactive read API on its own Reactor Netty port next to the servlet container,
+ * so slow readers are served by a few event-loop threads instead of one servlet thread each.
+ */
+public class ReactiveVesselServer implements SmartLifecycle {
+
+    private final RouterFunction<ServerResponse> routes;
+    private final HandlerStrategies handlerStrategies;
+    private final int port;
+    private volatile DisposableServer server;
+    private volatile LoopResources loopResources;
+
+    public ReactiveVesselServer(RouterFunction<ServerResponse> routes, HandlerStrategies handlerStrategies, int port) {
+        this.routes = routes;
+        this.handlerStrategies = handlerStrategies;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, handlerStrategies);
+        // Own event loops, so disposing Reactor's global resources (e.g. when another application
+        // context in the same JVM shuts down) cannot take this server down with it
+        loopResources = LoopResources.create("vessels-reactive");
+        server = HttpServer.create()
+                .runOn(loopResources)
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+        if (loopResources != null) {
+            loopResources.disposeLater().block();
+            loopResources = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        return server != null ? server.port() : port;
+    }
+}
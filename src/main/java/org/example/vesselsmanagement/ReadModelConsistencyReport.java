@@ -0,0 +1,60 @@
+package org.example.vesselsmanagement;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReadModelConsistencyReport {
+    private LocalDateTime checkedAt;
+    private long databaseVessels;
+    private long modelVessels;
+    // Ids only in the database, only in the read model, and in both but with different state
+    private List<Long> missingIds;
+    private List<Long> unexpectedIds;
+    private List<Long> staleIds;
+    private boolean repaired;
+
+    public ReadModelConsistencyReport() {
+        this.missingIds = new ArrayList<>();
+        this.unexpectedIds = new ArrayList<>();
+        this.staleIds = new ArrayList<>();
+    }
+
+    public ReadModelConsistencyReport(LocalDateTime checkedAt, long databaseVessels, long modelVessels,
+                                      List<Long> missingIds, List<Long> unexpectedIds, List<Long> staleIds,
+                                      boolean repaired) {
+        this.checkedAt = checkedAt;
+        this.databaseVessels = databaseVessels;
+        this.modelVessels = modelVessels;
+        this.missingIds = missingIds;
+        this.unexpectedIds = unexpectedIds;
+        this.staleIds = staleIds;
+        this.repaired = repaired;
+    }
+
+    public boolean isConsistent() {
+        return missingIds.isEmpty() && unexpectedIds.isEmpty() && staleIds.isEmpty();
+    }
+
+    // Getters and Setters
+    public LocalDateTime getCheckedAt() { return checkedAt; }
+    public void setCheckedAt(LocalDateTime checkedAt) { this.checkedAt = checkedAt; }
+
+    public long getDatabaseVessels() { return databaseVessels; }
+    public void setDatabaseVessels(long databaseVessels) { this.databaseVessels = databaseVessels; }
+
+    public long getModelVessels() { return modelVessels; }
+    public void setModelVessels(long modelVessels) { this.modelVessels = modelVessels; }
+
+    public List<Long> getMissingIds() { return missingIds; }
+    public void setMissingIds(List<Long> missingIds) { this.missingIds = missingIds; }
+
+    public List<Long> getUnexpectedIds() { return unexpectedIds; }
+    public void setUnexpectedIds(List<Long> unexpectedIds) { this.unexpectedIds = unexpectedIds; }
+
+    public List<Long> getStaleIds() { return staleIds; }
+    public void setStaleIds(List<Long> staleIds) { this.staleIds = staleIds; }
+
+    public boolean isRepaired() { return repaired; }
+    public void setRepaired(boolean repaired) { this.repaired = repaired; }
+}
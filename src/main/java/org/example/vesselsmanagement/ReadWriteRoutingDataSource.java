@@ -0,0 +1,208 @@
+package org.example.vesselsmanagement;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the least busy healthy replica and everything else to the
+ * primary. The physical connection is fetched lazily, once Spring has marked the transaction
+ * read-only. A client that has just written keeps reading from the primary until a replica's
+ * lag is smaller than the time since that write. Replicas that fail their health check or lag
+ * more than {@code maxReplicaLag} are skipped; with none left, reads fall back to the primary.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaDataSourceProperties properties;
+    private final Cache<String, Long> lastWriteMillis;
+    private final AtomicInteger rotation = new AtomicInteger();
+    private ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<Replica> replicas, ReplicaDataSourceProperties properties) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.properties = properties;
+        this.lastWriteMillis = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getMaxReplicaLag())
+                .maximumSize(100_000)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        Router router = new Router();
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.getDataSource().close());
+        primary.close();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    String determineRoute() {
+        String clientId = DataSourceRoutingContext.currentClientId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWriteMillis.put(clientId, System.currentTimeMillis());
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+
+        Long lastWrite = lastWriteMillis.getIfPresent(clientId);
+        long sinceWrite = lastWrite != null ? System.currentTimeMillis() - lastWrite : Long.MAX_VALUE;
+        long maxLag = properties.getMaxReplicaLag().toMillis();
+
+        Replica selected = null;
+        int selectedLoad = Integer.MAX_VALUE;
+        int offset = Math.floorMod(rotation.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((offset + i) % replicas.size());
+            long lag = replica.getLagMillis();
+            if (!replica.isHealthy() || lag > maxLag || lag >= sinceWrite) {
+                continue;
+            }
+            int load = replica.getActiveConnections();
+            if (load < selectedLoad) {
+                selected = replica;
+                selectedLoad = load;
+            }
+        }
+        return selected != null ? selected.getName() : PRIMARY;
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                long lagMillis = properties.getAssumedReplicaLag().toMillis();
+                if (replica.getLagQuery() != null) {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(replica.getLagQuery())) {
+                        lagMillis = resultSet.next() ? (long) (resultSet.getDouble(1) * 1000) : lagMillis;
+                    }
+                }
+                replica.update(true, lagMillis);
+            } catch (Exception ex) {
+                if (replica.isHealthy()) {
+                    log.warn("Replica {} failed its health check, routing its reads elsewhere", replica.getName(), ex);
+                }
+                replica.update(false, Long.MAX_VALUE);
+            }
+        }
+    }
+
+    private class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return determineRoute();
+        }
+    }
+
+    public static class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final String lagQuery;
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+
+        public Replica(String name, HikariDataSource dataSource, String lagQuery, Duration assumedLag) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.lagQuery = lagQuery;
+            this.lagMillis = assumedLag.toMillis();
+        }
+
+        void update(boolean healthy, long lagMillis) {
+            this.healthy = healthy;
+            this.lagMillis = lagMillis;
+        }
+
+        int getActiveConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+
+        // Getters
+        public String getName() { return name; }
+
+        public HikariDataSource getDataSource() { return dataSource; }
+
+        public String getLagQuery() { return lagQuery; }
+
+        public boolean isHealthy() { return healthy; }
+
+        public long getLagMillis() { return lagMillis; }
+    }
+
+    static List<Replica> createReplicas(ReplicaDataSourceProperties properties) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaDataSourceProperties.Replica config = properties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(config.getUrl());
+            dataSource.setUsername(config.getUsername());
+            dataSource.setPassword(config.getPassword());
+            dataSource.setMaximumPoolSize(config.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(new Replica("replica-" + i, dataSource, config.getLagQuery(), properties.getAssumedReplicaLag()));
+        }
+        return replicas;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.vesselsmanagement;
+
+public class SnapshotNotFoundException extends RuntimeException {
+    public SnapshotNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.vesselsmanagement;
+
+/**
+ * Statement counts and timings accumulated over every profiled run of one request mapping or
+ * one service method.
+ */
+public class SqlProfileStatistics {
+    private long invocations;
+    private long statements;
+    private long maxStatements;
+    private long sqlNanos;
+    private long elapsedNanos;
+    private long maxElapsedNanos;
+    private long overBudget;
+    private long repeatedStatements;
+
+    synchronized void record(int statementCount, long sqlNanos, long elapsedNanos, boolean overBudget, boolean repeated) {
+        this.invocations++;
+        this.statements += statementCount;
+        this.maxStatements = Math.max(this.maxStatements, statementCount);
+        this.sqlNanos += sqlNanos;
+        this.elapsedNanos += elapsedNanos;
+        this.maxElapsedNanos = Math.max(this.maxElapsedNanos, elapsedNanos);
+        if (overBudget) {
+            this.overBudget++;
+        }
+        if (repeated) {
+            this.repeatedStatements++;
+        }
+    }
+
+    // Getters
+    public synchronized long getInvocations() { return invocations; }
+
+    public synchronized long getStatements() { return statements; }
+
+    public synchronized long getMaxStatements() { return maxStatements; }
+
+    public synchronized double getAverageStatements() { return invocations == 0 ? 0 : (double) statements / invocations; }
+
+    public synchronized double getSqlMillis() { return sqlNanos / 1e6; }
+
+    public synchronized double getTotalMillis() { return elapsedNanos / 1e6; }
+
+    public synchronized double getMaxMillis() { return maxElapsedNanos / 1e6; }
+
+    public synchronized long getOverBudget() { return overBudget; }
+
+    public synchronized long getRepeatedStatements() { return repeatedStatements; }
+}
@@ -0,0 +1,221 @@
+package org.example.vesselsmanagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts and times the statements that run through {@link SqlProfilingDataSource}, per HTTP
+ * request and per service method, and keeps running aggregates of both and of every distinct
+ * statement. A statement is attributed to the profile of the thread that runs it. While the
+ * profiler is disabled the data source hands out plain connections, so none of this is reached.
+ */
+public class SqlProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlProfiler.class);
+
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final int MAX_STATEMENTS_PER_PROFILE = 256;
+
+    private final SqlProfilerProperties properties;
+    private final ThreadLocal<Profile> currentProfile = new ThreadLocal<>();
+    private final ConcurrentMap<String, SqlProfileStatistics> requests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SqlProfileStatistics> methods = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SqlStatementStatistics> statements = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public SqlProfiler(SqlProfilerProperties properties) {
+        this.properties = properties;
+        this.enabled = properties.isEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        log.info("SQL profiler {}", enabled ? "enabled" : "disabled");
+    }
+
+    public void beginRequest() {
+        currentProfile.set(new Profile());
+    }
+
+    /**
+     * Closes the current thread's request profile, adds it to the aggregates of {@code name} and
+     * logs it if it broke the statement or duration budget or repeated a statement.
+     */
+    public void endRequest(String name) {
+        Profile profile = currentProfile.get();
+        if (profile == null) {
+            return;
+        }
+        currentProfile.remove();
+        long elapsedNanos = System.nanoTime() - profile.startNanos;
+        boolean overBudget = overBudget(profile.statements, elapsedNanos);
+        Map<String, Integer> repeated = profile.repeatedStatements(properties.getRepeatedStatementThreshold());
+        statistics(requests, name).record(profile.statements, profile.sqlNanos, elapsedNanos, overBudget, !repeated.isEmpty());
+
+        repeated.forEach((sql, count) ->
+                log.warn("{} ran the same statement {} times, likely an N+1: {}", name, count, sql));
+        if (overBudget) {
+            log.warn("{} exceeded its SQL budget: {} statements, {} ms in SQL, {} ms in total (budget {} statements, {} ms)",
+                    name, profile.statements, millis(profile.sqlNanos), millis(elapsedNanos),
+                    properties.getStatementBudget(), properties.getDurationBudget().toMillis());
+        }
+    }
+
+    MethodScope enterMethod() {
+        Profile profile = currentProfile.get();
+        boolean owner = profile == null;
+        if (owner) {
+            // Called outside a request, e.g. from a scheduled job
+            profile = new Profile();
+            currentProfile.set(profile);
+        }
+        return new MethodScope(profile, owner, profile.statements, profile.sqlNanos, System.nanoTime());
+    }
+
+    void exitMethod(String name, MethodScope scope) {
+        long elapsedNanos = System.nanoTime() - scope.startNanos();
+        int statementCount = scope.profile().statements - scope.statementsBefore();
+        statistics(methods, name).record(statementCount, scope.profile().sqlNanos - scope.sqlNanosBefore(),
+                elapsedNanos, overBudget(statementCount, elapsedNanos), false);
+        if (scope.owner()) {
+            currentProfile.remove();
+        }
+    }
+
+    void statementExecuted(String sql, Map<Integer, Object> parameters, long nanos, Connection connection) {
+        boolean slow = nanos >= properties.getSlowQueryThreshold().toNanos();
+        SqlStatementStatistics statistics = statements.get(sql);
+        if (statistics == null && statements.size() < properties.getMaxTrackedStatements()) {
+            statistics = statements.computeIfAbsent(sql, SqlStatementStatistics::new);
+        }
+        if (statistics != null) {
+            statistics.record(nanos, slow);
+        }
+        Profile profile = currentProfile.get();
+        if (profile != null) {
+            profile.statementExecuted(sql, nanos);
+        }
+        if (slow) {
+            String plan = properties.isExplainSlowQueries() ? explain(connection, sql, parameters) : null;
+            log.warn("Slow SQL ({} ms): {}\n  parameters: {}{}", millis(nanos), sql, describe(parameters),
+                    plan != null ? "\n  plan: " + plan : "");
+        }
+    }
+
+    public SqlProfilerReport getReport(int statementLimit) {
+        List<SqlStatementStatistics> slowest = statements.values().stream()
+                .sorted(Comparator.comparingLong(SqlStatementStatistics::totalNanos).reversed())
+                .limit(statementLimit)
+                .toList();
+        return new SqlProfilerReport(enabled, new TreeMap<>(requests), new TreeMap<>(methods), slowest);
+    }
+
+    public void reset() {
+        requests.clear();
+        methods.clear();
+        statements.clear();
+    }
+
+    private boolean overBudget(int statementCount, long elapsedNanos) {
+        return statementCount > properties.getStatementBudget() || elapsedNanos > properties.getDurationBudget().toNanos();
+    }
+
+    private static SqlProfileStatistics statistics(ConcurrentMap<String, SqlProfileStatistics> statistics, String name) {
+        return statistics.computeIfAbsent(name, key -> new SqlProfileStatistics());
+    }
+
+    // Only queries are explained; EXPLAIN of an update is not portable and would not be worth the risk
+    private static String explain(Connection connection, String sql, Map<Integer, Object> parameters) {
+        String trimmed = sql.stripLeading();
+        if (!trimmed.regionMatches(true, 0, "SELECT", 0, 6) && !trimmed.regionMatches(true, 0, "WITH", 0, 4)) {
+            return null;
+        }
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                explain.setObject(parameter.getKey(), parameter.getValue());
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.add(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException ex) {
+            log.debug("Could not explain {}", sql, ex);
+            return null;
+        }
+    }
+
+    private static String describe(Map<Integer, Object> parameters) {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            Object value = parameter.getValue();
+            String text;
+            if (value == null) {
+                text = "NULL";
+            } else if (value instanceof byte[] bytes) {
+                text = "<" + bytes.length + " bytes>";
+            } else if (value instanceof CharSequence) {
+                text = "'" + abbreviate(value.toString()) + "'";
+            } else {
+                text = abbreviate(value.toString());
+            }
+            joiner.add(parameter.getKey() + "=" + text);
+        }
+        return joiner.toString();
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() <= MAX_PARAMETER_LENGTH ? text : text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    record MethodScope(Profile profile, boolean owner, int statementsBefore, long sqlNanosBefore, long startNanos) {}
+
+    // Only ever touched by the thread it belongs to
+    static final class Profile {
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int statements;
+        private long sqlNanos;
+
+        void statementExecuted(String sql, long nanos) {
+            statements++;
+            sqlNanos += nanos;
+            if (executions.size() < MAX_STATEMENTS_PER_PROFILE || executions.containsKey(sql)) {
+                executions.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        Map<String, Integer> repeatedStatements(int threshold) {
+            Map<String, Integer> repeated = new TreeMap<>();
+            executions.forEach((sql, count) -> {
+                if (count >= threshold) {
+                    repeated.put(sql, count);
+                }
+            });
+            return repeated;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SqlProfilerProperties.class)
+public class SqlProfilerConfiguration {
+
+    @Bean
+    public SqlProfiler sqlProfiler(SqlProfilerProperties properties) {
+        return new SqlProfiler(properties);
+    }
+
+    /**
+     * Wraps the data source after it is initialized. The container keeps the original instance
+     * for its lifecycle callbacks, so pools and replica health checks are still shut down. Only
+     * the {@code dataSource} bean is wrapped; the primary pool behind it would count twice.
+     */
+    @Bean
+    public static BeanPostProcessor sqlProfilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof SqlProfilingDataSource)) {
+                    return new SqlProfilingDataSource(dataSource, profiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlProfilingAspect sqlProfilingAspect(SqlProfiler profiler) {
+        return new SqlProfilingAspect(profiler);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlProfilingFilter> sqlProfilingFilter(SqlProfiler profiler) {
+        FilterRegistrationBean<SqlProfilingFilter> registration = new FilterRegistrationBean<>(new SqlProfilingFilter(profiler));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
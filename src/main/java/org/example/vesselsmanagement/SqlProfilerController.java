@@ -0,0 +1,38 @@
+package org.example.vesselsmanagement;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/profiler")
+@Tag(name = "SQL Profiler", description = "Per-request and per-method SQL statement profiling")
+public class SqlProfilerController {
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    @GetMapping
+    @Operation(summary = "Get SQL profile", description = "Statement counts and timings per request mapping and service method, and the most expensive statements")
+    public ResponseEntity<SqlProfilerReport> getReport(
+            @Parameter(description = "Number of statements to list, most total time first") @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(sqlProfiler.getReport(Math.max(0, limit)));
+    }
+
+    @PutMapping
+    @Operation(summary = "Enable or disable the SQL profiler", description = "Takes effect for connections obtained from then on")
+    public ResponseEntity<SqlProfilerReport> setEnabled(@RequestParam boolean enabled) {
+        sqlProfiler.setEnabled(enabled);
+        return ResponseEntity.ok(sqlProfiler.getReport(0));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Reset SQL profile", description = "Clear all collected statistics")
+    public ResponseEntity<Void> reset() {
+        sqlProfiler.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
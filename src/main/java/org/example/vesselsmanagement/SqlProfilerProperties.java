@@ -0,0 +1,39 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "vessels.profiler")
+public class SqlProfilerProperties {
+    // Initial state only; the profiler can be switched on and off at runtime
+    private boolean enabled = false;
+    private int statementBudget = 20;
+    private Duration durationBudget = Duration.ofMillis(500);
+    private Duration slowQueryThreshold = Duration.ofMillis(100);
+    // The same statement this many times in one request is reported as a likely N+1
+    private int repeatedStatementThreshold = 5;
+    private boolean explainSlowQueries = true;
+    private int maxTrackedStatements = 500;
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getStatementBudget() { return statementBudget; }
+    public void setStatementBudget(int statementBudget) { this.statementBudget = statementBudget; }
+
+    public Duration getDurationBudget() { return durationBudget; }
+    public void setDurationBudget(Duration durationBudget) { this.durationBudget = durationBudget; }
+
+    public Duration getSlowQueryThreshold() { return slowQueryThreshold; }
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) { this.slowQueryThreshold = slowQueryThreshold; }
+
+    public int getRepeatedStatementThreshold() { return repeatedStatementThreshold; }
+    public void setRepeatedStatementThreshold(int repeatedStatementThreshold) { this.repeatedStatementThreshold = repeatedStatementThreshold; }
+
+    public boolean isExplainSlowQueries() { return explainSlowQueries; }
+    public void setExplainSlowQueries(boolean explainSlowQueries) { this.explainSlowQueries = explainSlowQueries; }
+
+    public int getMaxTrackedStatements() { return maxTrackedStatements; }
+    public void setMaxTrackedStatements(int maxTrackedStatements) { this.maxTrackedStatements = maxTrackedStatements; }
+}
@@ -0,0 +1,34 @@
+package org.example.vesselsmanagement;
+
+import java.util.List;
+import java.util.Map;
+
+public class SqlProfilerReport {
+    private boolean enabled;
+    private Map<String, SqlProfileStatistics> requests;
+    private Map<String, SqlProfileStatistics> methods;
+    private List<SqlStatementStatistics> statements;
+
+    public SqlProfilerReport() {}
+
+    public SqlProfilerReport(boolean enabled, Map<String, SqlProfileStatistics> requests,
+                             Map<String, SqlProfileStatistics> methods, List<SqlStatementStatistics> statements) {
+        this.enabled = enabled;
+        this.requests = requests;
+        this.methods = methods;
+        this.statements = statements;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Map<String, SqlProfileStatistics> getRequests() { return requests; }
+    public void setRequests(Map<String, SqlProfileStatistics> requests) { this.requests = requests; }
+
+    public Map<String, SqlProfileStatistics> getMethods() { return methods; }
+    public void setMethods(Map<String, SqlProfileStatistics> methods) { this.methods = methods; }
+
+    public List<SqlStatementStatistics> getStatements() { return statements; }
+    public void setStatements(List<SqlStatementStatistics> statements) { this.statements = statements; }
+}
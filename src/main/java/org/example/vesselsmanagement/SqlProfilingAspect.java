@@ -0,0 +1,36 @@
+package org.example.vesselsmanagement;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Attributes statements to the service method that issued them. Runs outside the transaction
+ * advice so that statements flushed at commit count towards the method.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlProfilingAspect {
+
+    private final SqlProfiler profiler;
+
+    public SqlProfilingAspect(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *) && execution(public * *(..))")
+    public Object profileServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!profiler.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        SqlProfiler.MethodScope scope = profiler.enterMethod();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            profiler.exitMethod(joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                    + joinPoint.getSignature().getName(), scope);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+
+/**
+ * Times every statement executed on its connections and reports it, with its bind parameters,
+ * to the {@link SqlProfiler}. Whether a connection is profiled is decided when it is handed
+ * out: while the profiler is disabled callers get the delegate's connection untouched, so the
+ * only cost is one volatile read per connection.
+ */
+public class SqlProfilingDataSource extends DelegatingDataSource {
+
+    private final SqlProfiler profiler;
+
+    public SqlProfilingDataSource(DataSource targetDataSource, SqlProfiler profiler) {
+        super(targetDataSource);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return profiler.isEnabled() ? profile(connection) : connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return profiler.isEnabled() ? profile(connection) : connection;
+    }
+
+    private Connection profile(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SqlProfilingDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+    }
+
+    // Proxies are equal only to themselves, as callers comparing held connections expect
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = SqlProfilingDataSource.invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement and prepareCall take the SQL first; createStatement takes it per execution
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return Proxy.newProxyInstance(SqlProfilingDataSource.class.getClassLoader(),
+                        new Class<?>[] {method.getReturnType()},
+                        new StatementHandler(statement, sql, (Connection) proxy, connection));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private final Connection proxyConnection;
+        private final Connection connection;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private final List<String> batch = new ArrayList<>();
+
+        StatementHandler(Statement statement, String preparedSql, Connection proxyConnection, Connection connection) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.proxyConnection = proxyConnection;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return proxyConnection;
+            }
+            if (statement instanceof PreparedStatement && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                batch.add((String) args[0]);
+            } else if (name.equals("clearBatch")) {
+                batch.clear();
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            return SqlProfilingDataSource.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql;
+            if (preparedSql != null) {
+                sql = preparedSql;
+            } else if (args != null && args.length > 0 && args[0] instanceof String executed) {
+                sql = executed;
+            } else {
+                sql = String.join(";\n", batch);
+            }
+            long start = System.nanoTime();
+            try {
+                return SqlProfilingDataSource.invoke(statement, method, args);
+            } finally {
+                profiler.statementExecuted(sql, parameters, System.nanoTime() - start, connection);
+                if (method.getName().endsWith("Batch")) {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
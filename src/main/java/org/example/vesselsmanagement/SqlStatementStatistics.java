@@ -0,0 +1,37 @@
+package org.example.vesselsmanagement;
+
+public class SqlStatementStatistics {
+    private final String sql;
+    private long executions;
+    private long totalNanos;
+    private long maxNanos;
+    private long slowExecutions;
+
+    public SqlStatementStatistics(String sql) {
+        this.sql = sql;
+    }
+
+    synchronized void record(long nanos, boolean slow) {
+        executions++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        if (slow) {
+            slowExecutions++;
+        }
+    }
+
+    synchronized long totalNanos() {
+        return totalNanos;
+    }
+
+    // Getters
+    public String getSql() { return sql; }
+
+    public synchronized long getExecutions() { return executions; }
+
+    public synchronized double getTotalMillis() { return totalNanos / 1e6; }
+
+    public synchronized double getMaxMillis() { return maxNanos / 1e6; }
+
+    public synchronized long getSlowExecutions() { return slowExecutions; }
+}
@@ -0,0 +1,174 @@
+package org.example.vesselsmanagement;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A condition over vessel fields whose matching vessels are tracked as the fleet changes. All
+ * criteria that are set must hold; ranges include their bounds. {@code estimatedArrivalWithin}
+ * matches vessels due between now and now plus the duration.
+ */
+public class StandingQuery {
+
+    private Long id;
+
+    @NotBlank(message = "Query name is required")
+    @Size(max = 100, message = "Query name must not exceed 100 characters")
+    private String name;
+
+    private String imoNumber;
+    private VesselType type;
+    private VesselStatus status;
+    private String flagState;
+    private String lastPortOfCall;
+    private String nextPortOfCall;
+    private String nameContains;
+    private Integer minYearBuilt;
+    private Integer maxYearBuilt;
+    private Double minLengthMeters;
+    private Double maxLengthMeters;
+    private Double minGrossTonnage;
+    private Double maxGrossTonnage;
+    private Duration estimatedArrivalWithin;
+
+    // Must point to localhost; matches and unmatches are POSTed there as they happen
+    private String callbackUrl;
+
+    private LocalDateTime createdAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getImoNumber() { return imoNumber; }
+    public void setImoNumber(String imoNumber) { this.imoNumber = imoNumber; }
+
+    public VesselType getType() { return type; }
+    public void setType(VesselType type) { this.type = type; }
+
+    public VesselStatus getStatus() { return status; }
+    public void setStatus(VesselStatus status) { this.status = status; }
+
+    public String getFlagState() { return flagState; }
+    public void setFlagState(String flagState) { this.flagState = flagState; }
+
+    public String getLastPortOfCall() { return lastPortOfCall; }
+    public void setLastPortOfCall(String lastPortOfCall) { this.lastPortOfCall = lastPortOfCall; }
+
+    public String getNextPortOfCall() { return nextPortOfCall; }
+    public void setNextPortOfCall(String nextPortOfCall) { this.nextPortOfCall = nextPortOfCall; }
+
+    public String getNameContains() { return nameContains; }
+    public void setNameContains(String nameContains) { this.nameContains = nameContains; }
+
+    public Integer getMinYearBuilt() { return minYearBuilt; }
+    public void setMinYearBuilt(Integer minYearBuilt) { this.minYearBuilt = minYearBuilt; }
+
+    public Integer getMaxYearBuilt() { return maxYearBuilt; }
+    public void setMaxYearBuilt(Integer maxYearBuilt) { this.maxYearBuilt = maxYearBuilt; }
+
+    public Double getMinLengthMeters() { return minLengthMeters; }
+    public void setMinLengthMeters(Double minLengthMeters) { this.minLengthMeters = minLengthMeters; }
+
+    public Double getMaxLengthMeters() { return maxLengthMeters; }
+    public void setMaxLengthMeters(Double maxLengthMeters) { this.maxLengthMeters = maxLengthMeters; }
+
+    public Double getMinGrossTonnage() { return minGrossTonnage; }
+    public void setMinGrossTonnage(Double minGrossTonnage) { this.minGrossTonnage = minGrossTonnage; }
+
+    public Double getMaxGrossTonnage() { return maxGrossTonnage; }
+    public void setMaxGrossTonnage(Double maxGrossTonnage) { this.maxGrossTonnage = maxGrossTonnage; }
+
+    public Duration getEstimatedArrivalWithin() { return estimatedArrivalWithin; }
+    public void setEstimatedArrivalWithin(Duration estimatedArrivalWithin) { this.estimatedArrivalWithin = estimatedArrivalWithin; }
+
+    public String getCallbackUrl() { return callbackUrl; }
+    public void setCallbackUrl(String callbackUrl) { this.callbackUrl = callbackUrl; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    boolean hasCriteria() {
+        return imoNumber != null || type != null || status != null || flagState != null || lastPortOfCall != null
+                || nextPortOfCall != null || nameContains != null || minYearBuilt != null || maxYearBuilt != null
+                || minLengthMeters != null || maxLengthMeters != null || minGrossTonnage != null
+                || maxGrossTonnage != null || estimatedArrivalWithin != null;
+    }
+
+    /** Whether the result can change with the clock alone, without any write. */
+    boolean timeRelative() {
+        return estimatedArrivalWithin != null;
+    }
+
+    boolean matches(Vessel vessel, LocalDateTime now) {
+        return (imoNumber == null || imoNumber.equals(vessel.getImoNumber()))
+                && (type == null || type == vessel.getType())
+                && (status == null || status == vessel.getStatus())
+                && (flagState == null || flagState.equals(vessel.getFlagState()))
+                && (lastPortOfCall == null || lastPortOfCall.equals(vessel.getLastPortOfCall()))
+                && (nextPortOfCall == null || nextPortOfCall.equals(vessel.getNextPortOfCall()))
+                && (nameContains == null || vessel.getName().contains(nameContains))
+                && between(vessel.getYearBuilt(), minYearBuilt, maxYearBuilt)
+                && between(vessel.getLengthMeters(), minLengthMeters, maxLengthMeters)
+                && between(vessel.getGrossTonnage(), minGrossTonnage, maxGrossTonnage)
+                && (estimatedArrivalWithin == null
+                        || between(vessel.getEstimatedArrival(), now, now.plus(estimatedArrivalWithin)));
+    }
+
+    /**
+     * The key this query is indexed under: its most selective equality criterion, or null when it
+     * has none and must be checked against every change.
+     */
+    String anchorKey() {
+        if (imoNumber != null) {
+            return key("imoNumber", imoNumber);
+        }
+        if (nextPortOfCall != null) {
+            return key("nextPortOfCall", nextPortOfCall);
+        }
+        if (lastPortOfCall != null) {
+            return key("lastPortOfCall", lastPortOfCall);
+        }
+        if (flagState != null) {
+            return key("flagState", flagState);
+        }
+        if (status != null) {
+            return key("status", status.name());
+        }
+        return type != null ? key("type", type.name()) : null;
+    }
+
+    /** Every key a query anchored on this vessel's current values could be indexed under. */
+    static List<String> anchorKeys(Vessel vessel) {
+        List<String> keys = new ArrayList<>(6);
+        keys.add(key("imoNumber", vessel.getImoNumber()));
+        if (vessel.getNextPortOfCall() != null) {
+            keys.add(key("nextPortOfCall", vessel.getNextPortOfCall()));
+        }
+        if (vessel.getLastPortOfCall() != null) {
+            keys.add(key("lastPortOfCall", vessel.getLastPortOfCall()));
+        }
+        keys.add(key("flagState", vessel.getFlagState()));
+        keys.add(key("status", vessel.getStatus().name()));
+        keys.add(key("type", vessel.getType().name()));
+        return keys;
+    }
+
+    private static String key(String field, String value) {
+        return field + ":" + value;
+    }
+
+    private static <T extends Comparable<T>> boolean between(T value, T min, T max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.vesselsmanagement;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/standing-queries")
+@Tag(name = "Standing Queries", description = "Notifications when vessels enter or leave a condition")
+public class StandingQueryController {
+
+    @Autowired
+    private StandingQueryService standingQueryService;
+
+    @PostMapping
+    @Operation(summary = "Register standing query", description = "Start tracking the vessels matching a condition")
+    public ResponseEntity<StandingQuery> register(@Valid @RequestBody StandingQuery query) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(standingQueryService.register(query));
+    }
+
+    @GetMapping
+    @Operation(summary = "Get standing queries", description = "List the registered standing queries")
+    public ResponseEntity<List<StandingQuery>> getQueries() {
+        return ResponseEntity.ok(standingQueryService.getQueries());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get standing query", description = "Retrieve a registered standing query")
+    public ResponseEntity<StandingQuery> getQuery(@PathVariable Long id) {
+        return ResponseEntity.ok(standingQueryService.getQuery(id));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Unregister standing query", description = "Stop tracking a standing query and drop its notifications")
+    public ResponseEntity<Void> unregister(@PathVariable Long id) {
+        standingQueryService.unregister(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/matches")
+    @Operation(summary = "Get matching vessels", description = "Vessels currently matching the standing query")
+    public ResponseEntity<List<Vessel>> getMatches(@PathVariable Long id) {
+        return ResponseEntity.ok(standingQueryService.getMatches(id));
+    }
+
+    @GetMapping("/{id}/notifications")
+    @Operation(summary = "Pull notifications", description = "Match and unmatch notifications after a sequence number, oldest first")
+    public ResponseEntity<List<StandingQueryNotification>> getNotifications(@PathVariable Long id,
+            @Parameter(description = "Last sequence number already seen") @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of notifications") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(standingQueryService.getNotifications(id, after, limit));
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.vesselsmanagement;
+
+public class StandingQueryNotFoundException extends RuntimeException {
+    public StandingQueryNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.vesselsmanagement;
+
+import java.time.LocalDateTime;
+
+public class StandingQueryNotification {
+
+    public enum Event {
+        MATCH,
+        UNMATCH
+    }
+
+    // Increases by one per notification of the same query, so a gap shows that some were missed
+    private long sequence;
+    private Long queryId;
+    private Event event;
+    private Long vesselId;
+    // The vessel's state after the change, or null when it was deleted
+    private Vessel vessel;
+    private LocalDateTime occurredAt;
+
+    // Constructors
+    public StandingQueryNotification() {}
+
+    public StandingQueryNotification(long sequence, Long queryId, Event event, Long vesselId, Vessel vessel,
+                                     LocalDateTime occurredAt) {
+        this.sequence = sequence;
+        this.queryId = queryId;
+        this.event = event;
+        this.vesselId = vesselId;
+        this.vessel = vessel;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters and Setters
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public Long getQueryId() { return queryId; }
+    public void setQueryId(Long queryId) { this.queryId = queryId; }
+
+    public Event getEvent() { return event; }
+    public void setEvent(Event event) { this.event = event; }
+
+    public Long getVesselId() { return vesselId; }
+    public void setVesselId(Long vesselId) { this.vesselId = vesselId; }
+
+    public Vessel getVessel() { return vessel; }
+    public void setVessel(Vessel vessel) { this.vessel = vessel; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,525 @@
+package org.example.vesselsmanagement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evaluates standing queries incrementally. Every committed vessel change reaches
+ * {@link #vesselsChanged} through {@link VesselReadModelService}, whichever path made it, and is
+ * checked only against the queries it could affect: those indexed under one of the vessel's
+ * current values (see {@link StandingQuery#anchorKey()}), those the vessel matched until now, and
+ * the few queries without an equality criterion. Arrival-window queries also follow the clock:
+ * each tick checks only the vessels whose estimated arrival crossed an edge of the window since
+ * the previous one. A vessel entering or leaving a query's result
+ * records a notification, which clients pull by sequence number or receive on a localhost webhook.
+ * Queries live in memory and are lost when the instance stops.
+ * <p>
+ * The service lock guards only the indexes and is held just long enough to pick candidates; each
+ * query is then evaluated under its own lock, so writers reporting unrelated vessels do not queue
+ * behind one another. A query's lock may be taken before the service lock, never after it.
+ */
+@Service
+public class StandingQueryService implements DisposableBean {
+
+    static final int MAX_PULL_LIMIT = 1000;
+    static final int MAX_QUEUED_WEBHOOKS = 1000;
+    private static final Set<String> LOCAL_HOSTS = Set.of("localhost", "127.0.0.1", "[::1]");
+
+    private static final Logger log = LoggerFactory.getLogger(StandingQueryService.class);
+
+    @Autowired
+    private VesselReadModel vesselReadModel;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${vessels.standing-queries.max-queries:1000}")
+    private int maxQueries;
+
+    @Value("${vessels.standing-queries.max-buffered-notifications:1000}")
+    private int maxBufferedNotifications;
+
+    @Value("${vessels.standing-queries.webhook-timeout-ms:5000}")
+    private long webhookTimeoutMillis;
+
+    private final Map<Long, Registration> registrations = new LinkedHashMap<>();
+    private final Map<String, Set<Registration>> anchored = new HashMap<>();
+    private final Set<Registration> unanchored = new LinkedHashSet<>();
+    // Vessel id to the queries it currently matches, so a change that takes it out is noticed.
+    // Updated under the query's lock rather than the service lock, hence concurrent.
+    private final Map<Long, Set<Registration>> matchingByVessel = new ConcurrentHashMap<>();
+    private final Set<Registration> timeRelative = new LinkedHashSet<>();
+    // Vessel ids by estimated arrival, kept only while a time-relative query is registered
+    private final TreeMap<LocalDateTime, Set<Long>> byEstimatedArrival = new TreeMap<>();
+    private final Map<Long, LocalDateTime> estimatedArrivals = new HashMap<>();
+    private long nextId = 1;
+    private final AtomicLong evaluations = new AtomicLong();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    // A receiver that cannot keep up loses pushes once the queue is full; the notifications stay pullable
+    private final ExecutorService webhookExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(MAX_QUEUED_WEBHOOKS), runnable -> {
+                Thread thread = new Thread(runnable, "standing-query-webhooks");
+                thread.setDaemon(true);
+                return thread;
+            }, (task, executor) -> log.warn("Standing query webhook queue is full; dropped a push, its notifications can still be pulled"));
+
+    /**
+     * Registers a query. Vessels matching it now form its starting result and are not notified;
+     * only later transitions are.
+     */
+    public StandingQuery register(StandingQuery query) {
+        if (!query.hasCriteria()) {
+            throw new IllegalArgumentException("A standing query needs at least one criterion");
+        }
+        Duration within = query.getEstimatedArrivalWithin();
+        if (within != null && (within.isNegative() || within.isZero())) {
+            throw new IllegalArgumentException("Estimated arrival window must be positive");
+        }
+        URI callback = query.getCallbackUrl() != null ? localCallback(query.getCallbackUrl()) : null;
+        if (!vesselReadModel.isLoaded()) {
+            throw new IllegalStateException("Vessel read model is not loaded");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        query.setCreatedAt(now);
+        Registration registration = new Registration(query, callback);
+        // Indexed first and evaluated while its lock is held, so a writer that picks it up meanwhile
+        // waits for the starting result instead of being missed
+        synchronized (registration) {
+            List<Vessel> candidates;
+            synchronized (this) {
+                if (registrations.size() >= maxQueries) {
+                    throw new IllegalArgumentException("At most " + maxQueries + " standing queries can be registered");
+                }
+                query.setId(nextId++);
+                if (query.timeRelative() && timeRelative.isEmpty()) {
+                    vesselReadModel.findAll().forEach(vessel -> indexEstimatedArrival(vessel.getId(), vessel));
+                }
+                candidates = candidateVessels(query, now);
+                registrations.put(query.getId(), registration);
+                if (registration.anchorKey != null) {
+                    anchored.computeIfAbsent(registration.anchorKey, key -> new LinkedHashSet<>()).add(registration);
+                } else {
+                    unanchored.add(registration);
+                }
+                if (query.timeRelative()) {
+                    timeRelative.add(registration);
+                    registration.clockEvaluatedAt = now;
+                }
+            }
+            for (Vessel vessel : candidates) {
+                evaluations.incrementAndGet();
+                if (query.matches(vessel, now)) {
+                    addMatch(registration, vessel.getId());
+                }
+            }
+            // A vessel changed since the candidates were read may have been passed over by its writer
+            List<StandingQueryNotification> fired = new ArrayList<>();
+            for (Vessel vessel : candidates) {
+                if (vesselReadModel.get(vessel.getId()).orElse(null) != vessel) {
+                    evaluateLatest(registration, vessel.getId(), now, fired);
+                }
+            }
+            dispatch(registration, fired);
+        }
+        return query;
+    }
+
+    public void unregister(Long queryId) {
+        Registration registration;
+        synchronized (this) {
+            registration = registration(queryId);
+            registrations.remove(queryId);
+            if (registration.anchorKey != null) {
+                Set<Registration> queries = anchored.get(registration.anchorKey);
+                queries.remove(registration);
+                if (queries.isEmpty()) {
+                    anchored.remove(registration.anchorKey);
+                }
+            } else {
+                unanchored.remove(registration);
+            }
+            if (timeRelative.remove(registration) && timeRelative.isEmpty()) {
+                byEstimatedArrival.clear();
+                estimatedArrivals.clear();
+            }
+        }
+        synchronized (registration) {
+            registration.removed = true;
+            for (Long vesselId : new ArrayList<>(registration.matches)) {
+                removeMatch(registration, vesselId);
+            }
+        }
+    }
+
+    public synchronized List<StandingQuery> getQueries() {
+        return registrations.values().stream().map(registration -> registration.query).toList();
+    }
+
+    public synchronized StandingQuery getQuery(Long queryId) {
+        return registration(queryId).query;
+    }
+
+    /** The vessels currently matching the query, in id order. */
+    public List<Vessel> getMatches(Long queryId) {
+        Registration registration = registration(queryId);
+        List<Long> ids;
+        synchronized (registration) {
+            ids = new ArrayList<>(new TreeSet<>(registration.matches));
+        }
+        return vesselReadModel.getAllById(ids);
+    }
+
+    /** Buffered notifications with a sequence number above {@code afterSequence}, oldest first. */
+    public List<StandingQueryNotification> getNotifications(Long queryId, long afterSequence, int limit) {
+        if (limit < 1 || limit > MAX_PULL_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PULL_LIMIT);
+        }
+        Registration registration = registration(queryId);
+        List<StandingQueryNotification> notifications = new ArrayList<>();
+        synchronized (registration) {
+            for (StandingQueryNotification notification : registration.notifications) {
+                if (notification.getSequence() > afterSequence) {
+                    notifications.add(notification);
+                    if (notifications.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return notifications;
+    }
+
+    /** Re-evaluates the candidate queries of vessels whose committed state the read model now holds. */
+    public void vesselsChanged(Collection<Long> vesselIds) {
+        if (vesselIds.isEmpty() || !vesselReadModel.isLoaded()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Registration, Set<Long>> vesselsByQuery = new LinkedHashMap<>();
+        synchronized (this) {
+            if (registrations.isEmpty()) {
+                return;
+            }
+            for (Long id : vesselIds) {
+                Vessel vessel = vesselReadModel.get(id).orElse(null);
+                if (!timeRelative.isEmpty()) {
+                    indexEstimatedArrival(id, vessel);
+                }
+                for (Registration registration : candidates(id, vessel)) {
+                    vesselsByQuery.computeIfAbsent(registration, key -> new LinkedHashSet<>()).add(id);
+                }
+            }
+        }
+        vesselsByQuery.forEach((registration, ids) -> {
+            synchronized (registration) {
+                List<StandingQueryNotification> fired = new ArrayList<>();
+                for (Long id : ids) {
+                    evaluateLatest(registration, id, now, fired);
+                }
+                dispatch(registration, fired);
+            }
+        });
+    }
+
+    /** Re-evaluates every query after the whole read model was reloaded. */
+    public void vesselsReloaded() {
+        if (!vesselReadModel.isLoaded()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Registration> queries;
+        synchronized (this) {
+            if (!timeRelative.isEmpty()) {
+                byEstimatedArrival.clear();
+                estimatedArrivals.clear();
+                vesselReadModel.findAll().forEach(vessel -> indexEstimatedArrival(vessel.getId(), vessel));
+            }
+            queries = new ArrayList<>(registrations.values());
+        }
+        for (Registration registration : queries) {
+            synchronized (registration) {
+                Set<Long> ids = new TreeSet<>(registration.matches);
+                synchronized (this) {
+                    candidateVessels(registration.query, now).forEach(vessel -> ids.add(vessel.getId()));
+                }
+                List<StandingQueryNotification> fired = new ArrayList<>();
+                for (Long id : ids) {
+                    evaluateLatest(registration, id, now, fired);
+                }
+                registration.clockEvaluatedAt = now;
+                dispatch(registration, fired);
+            }
+        }
+    }
+
+    // Time-relative queries change result as the clock moves, without any write to trigger them
+    @Scheduled(fixedDelayString = "${vessels.standing-queries.clock-interval-ms:60000}")
+    public void evaluateTimeRelativeQueries() {
+        evaluateTimeRelativeQueries(LocalDateTime.now());
+    }
+
+    /**
+     * Between two ticks a vessel can only enter or leave a window {@code [now, now + within]} by
+     * its estimated arrival passing the lower edge or reaching the upper one, so those two ranges
+     * of the arrival index are all that need checking. Writes in between were checked as they came.
+     */
+    void evaluateTimeRelativeQueries(LocalDateTime now) {
+        if (!vesselReadModel.isLoaded()) {
+            return;
+        }
+        List<Registration> queries;
+        synchronized (this) {
+            queries = new ArrayList<>(timeRelative);
+        }
+        for (Registration registration : queries) {
+            synchronized (registration) {
+                Duration within = registration.query.getEstimatedArrivalWithin();
+                // Either order, so a clock set back is handled like one moving forward
+                LocalDateTime from = registration.clockEvaluatedAt.isBefore(now) ? registration.clockEvaluatedAt : now;
+                LocalDateTime to = registration.clockEvaluatedAt.isBefore(now) ? now : registration.clockEvaluatedAt;
+                Set<Long> ids = new TreeSet<>();
+                synchronized (this) {
+                    byEstimatedArrival.subMap(from, true, to, true).values().forEach(ids::addAll);
+                    byEstimatedArrival.subMap(from.plus(within), true, to.plus(within), true).values().forEach(ids::addAll);
+                }
+                List<StandingQueryNotification> fired = new ArrayList<>();
+                for (Long id : ids) {
+                    evaluateLatest(registration, id, now, fired);
+                }
+                registration.clockEvaluatedAt = now;
+                dispatch(registration, fired);
+            }
+        }
+    }
+
+    long getEvaluationCount() {
+        return evaluations.get();
+    }
+
+    @Override
+    public void destroy() {
+        webhookExecutor.shutdownNow();
+    }
+
+    private Set<Registration> candidates(Long vesselId, Vessel vessel) {
+        Set<Registration> candidates = new LinkedHashSet<>(unanchored);
+        candidates.addAll(matchingByVessel.getOrDefault(vesselId, Set.of()));
+        if (vessel != null) {
+            for (String key : StandingQuery.anchorKeys(vessel)) {
+                candidates.addAll(anchored.getOrDefault(key, Set.of()));
+            }
+        }
+        return candidates;
+    }
+
+    // The narrowest index covering the query; only queries with neither an equality criterion nor
+    // an arrival window scan the whole fleet
+    private List<Vessel> candidateVessels(StandingQuery query, LocalDateTime now) {
+        if (query.getImoNumber() != null) {
+            return vesselReadModel.getByImoNumber(query.getImoNumber()).map(List::of).orElse(List.of());
+        }
+        if (query.getNextPortOfCall() != null) {
+            return vesselReadModel.findByNextPortOfCall(query.getNextPortOfCall());
+        }
+        if (query.getLastPortOfCall() != null) {
+            return vesselReadModel.findByLastPortOfCall(query.getLastPortOfCall());
+        }
+        if (query.getFlagState() != null) {
+            return vesselReadModel.findByFlagState(query.getFlagState());
+        }
+        if (query.getStatus() != null) {
+            return vesselReadModel.findByStatus(query.getStatus());
+        }
+        if (query.getType() != null) {
+            return vesselReadModel.findByType(query.getType());
+        }
+        if (query.timeRelative()) {
+            Set<Long> ids = new TreeSet<>();
+            byEstimatedArrival.subMap(now, true, now.plus(query.getEstimatedArrivalWithin()), true).values()
+                    .forEach(ids::addAll);
+            return vesselReadModel.getAllById(ids);
+        }
+        return vesselReadModel.findAll();
+    }
+
+    // Called with the registration's lock held. Evaluates the state the read model holds now, not
+    // the one reported, so changes evaluated out of order settle on the latest. A writer picks its
+    // candidates without waiting for evaluations in flight, so one whose vessel changed again before
+    // this match was published may have passed the query over; the loop covers that change.
+    private void evaluateLatest(Registration registration, Long vesselId, LocalDateTime now,
+                                List<StandingQueryNotification> fired) {
+        Vessel vessel = vesselReadModel.get(vesselId).orElse(null);
+        while (true) {
+            evaluate(registration, vesselId, vessel, now, fired);
+            Vessel latest = vesselReadModel.get(vesselId).orElse(null);
+            if (latest == vessel) {
+                return;
+            }
+            vessel = latest;
+        }
+    }
+
+    private void evaluate(Registration registration, Long vesselId, Vessel vessel, LocalDateTime now,
+                          List<StandingQueryNotification> fired) {
+        if (registration.removed) {
+            return;
+        }
+        evaluations.incrementAndGet();
+        boolean matches = vessel != null && registration.query.matches(vessel, now);
+        if (matches == registration.matches.contains(vesselId)) {
+            return;
+        }
+        if (matches) {
+            addMatch(registration, vesselId);
+        } else {
+            removeMatch(registration, vesselId);
+        }
+        StandingQueryNotification notification = new StandingQueryNotification(++registration.sequence,
+                registration.query.getId(), matches ? StandingQueryNotification.Event.MATCH : StandingQueryNotification.Event.UNMATCH,
+                vesselId, vessel, now);
+        registration.notifications.addLast(notification);
+        while (registration.notifications.size() > maxBufferedNotifications) {
+            registration.notifications.removeFirst();
+        }
+        fired.add(notification);
+    }
+
+    // Queued while evaluation holds the query's lock, so its webhook gets notifications in sequence
+    // order; sending happens on the webhook thread, so a slow receiver does not hold up writes
+    private void dispatch(Registration registration, List<StandingQueryNotification> fired) {
+        if (registration.callback != null && !fired.isEmpty()) {
+            webhookExecutor.execute(() -> post(registration, fired));
+        }
+    }
+
+    private void indexEstimatedArrival(Long vesselId, Vessel vessel) {
+        LocalDateTime arrival = vessel != null ? vessel.getEstimatedArrival() : null;
+        LocalDateTime indexed = arrival != null ? estimatedArrivals.put(vesselId, arrival) : estimatedArrivals.remove(vesselId);
+        if (Objects.equals(indexed, arrival)) {
+            return;
+        }
+        if (indexed != null) {
+            Set<Long> ids = byEstimatedArrival.get(indexed);
+            ids.remove(vesselId);
+            if (ids.isEmpty()) {
+                byEstimatedArrival.remove(indexed);
+            }
+        }
+        if (arrival != null) {
+            byEstimatedArrival.computeIfAbsent(arrival, key -> new HashSet<>()).add(vesselId);
+        }
+    }
+
+    private void addMatch(Registration registration, Long vesselId) {
+        registration.matches.add(vesselId);
+        matchingByVessel.compute(vesselId, (id, queries) -> {
+            Set<Registration> next = queries != null ? queries : ConcurrentHashMap.newKeySet();
+            next.add(registration);
+            return next;
+        });
+    }
+
+    private void removeMatch(Registration registration, Long vesselId) {
+        registration.matches.remove(vesselId);
+        matchingByVessel.computeIfPresent(vesselId, (id, queries) -> {
+            queries.remove(registration);
+            return queries.isEmpty() ? null : queries;
+        });
+    }
+
+    private void post(Registration registration, List<StandingQueryNotification> notifications) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(registration.callback)
+                    .timeout(Duration.ofMillis(webhookTimeoutMillis))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(notifications)))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                log.warn("Webhook of standing query {} answered {}; notifications up to {} can still be pulled",
+                        registration.query.getId(), response.statusCode(), notifications.get(notifications.size() - 1).getSequence());
+            }
+        } catch (JsonProcessingException ex) {
+            log.error("Could not serialize notifications of standing query {}", registration.query.getId(), ex);
+        } catch (IOException ex) {
+            log.warn("Webhook of standing query {} failed: {}", registration.query.getId(), ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized Registration registration(Long queryId) {
+        Registration registration = registrations.get(queryId);
+        if (registration == null) {
+            throw new StandingQueryNotFoundException("Standing query not found with id: " + queryId);
+        }
+        return registration;
+    }
+
+    private static URI localCallback(String url) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("Invalid callback URL: " + url);
+        }
+        if (!("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) || !LOCAL_HOSTS.contains(uri.getHost())) {
+            throw new IllegalArgumentException("Callback URL must be an http(s) URL on localhost: " + url);
+        }
+        return uri;
+    }
+
+    private static final class Registration {
+        private final StandingQuery query;
+        private final String anchorKey;
+        private final URI callback;
+        private final Set<Long> matches = new HashSet<>();
+        private final Deque<StandingQueryNotification> notifications = new ArrayDeque<>();
+        private long sequence;
+        // When a time-relative query's result last followed the clock
+        private LocalDateTime clockEvaluatedAt;
+        private boolean removed;
+
+        private Registration(StandingQuery query, URI callback) {
+            this.query = query;
+            this.anchorKey = query.anchorKey();
+            this.callback = callback;
+        }
+    }
+}
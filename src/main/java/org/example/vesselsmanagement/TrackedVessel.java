@@ -0,0 +1,24 @@
+package org.example.vesselsmanagement;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of a vessel as held by {@link VesselSpatialIndex}: the attributes spatial
+ * queries filter on plus the last reported position, if any.
+ */
+public record TrackedVessel(Long vesselId, String name, String imoNumber, VesselType type, VesselStatus status,
+                            Double latitude, Double longitude, Double course, Double speed,
+                            LocalDateTime reportedAt) {
+
+    public boolean hasPosition() {
+        return latitude != null && longitude != null;
+    }
+
+    TrackedVessel withAttributes(String name, String imoNumber, VesselType type, VesselStatus status) {
+        return new TrackedVessel(vesselId, name, imoNumber, type, status, latitude, longitude, course, speed, reportedAt);
+    }
+
+    TrackedVessel withPosition(double latitude, double longitude, Double course, Double speed, LocalDateTime reportedAt) {
+        return new TrackedVessel(vesselId, name, imoNumber, type, status, latitude, longitude, course, speed, reportedAt);
+    }
+}
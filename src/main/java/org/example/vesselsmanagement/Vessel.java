@@ -2,11 +2,19 @@ package org.example.vesselsmanagement;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "vessels")
+// Lets the archive job find decommissioned vessels past their retention without a full scan
+@Table(name = "vessels", indexes = @Index(name = "idx_vessels_status_updated_at", columnList = "status, updated_at"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vessels")
+@EntityListeners(VesselReadModelListener.class)
 public class Vessel {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -65,15 +73,23 @@ public class Vessel {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Raised under the row lock by every write, so it orders changes the way they committed.
+    // SQL that writes vessels directly must raise it too.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Truncated to the column precision so the in-memory value equals the stored one
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // Constructors
@@ -129,4 +145,7 @@ public class Vessel {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,47 @@
+package org.example.vesselsmanagement;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/archive")
+@Tag(name = "Archive", description = "Archive of decommissioned vessels")
+public class VesselArchiveController {
+
+    @Autowired
+    private VesselArchiveService vesselArchiveService;
+
+    @GetMapping
+    @Operation(summary = "Get archived vessels", description = "Retrieve archived vessels, most recently archived first")
+    public ResponseEntity<Page<ArchivedVessel>> getArchivedVessels(
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("archivedAt").descending().and(Sort.by("id")));
+        return ResponseEntity.ok(vesselArchiveService.getArchivedVessels(pageable));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get archived vessel", description = "Retrieve an archived vessel by its original ID")
+    public ResponseEntity<ArchivedVessel> getArchivedVessel(@PathVariable Long id) {
+        return ResponseEntity.ok(vesselArchiveService.getArchivedVessel(id));
+    }
+
+    @PostMapping("/run")
+    @Operation(summary = "Run archiving", description = "Archive vessels decommissioned for longer than the retention period now instead of waiting for the schedule")
+    public ResponseEntity<VesselArchiveResult> archiveDecommissioned() {
+        return ResponseEntity.ok(vesselArchiveService.archiveDecommissioned());
+    }
+
+    @PostMapping("/{id}/restore")
+    @Operation(summary = "Restore archived vessel", description = "Move an archived vessel back into the live fleet under its original ID")
+    public ResponseEntity<Vessel> restoreVessel(@PathVariable Long id) {
+        return ResponseEntity.ok(vesselArchiveService.restoreVessel(id));
+    }
+}
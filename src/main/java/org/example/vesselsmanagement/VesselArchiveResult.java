@@ -0,0 +1,40 @@
+package org.example.vesselsmanagement;
+
+import java.time.LocalDateTime;
+
+public class VesselArchiveResult {
+    // Vessels decommissioned and unchanged since before this time were due for archiving
+    private LocalDateTime cutoff;
+    private int archived;
+    private int chunks;
+    // True when the run stopped at its per-run limit with due vessels left for the next run
+    private boolean limitReached;
+    private long elapsedMillis;
+
+    // Constructors
+    public VesselArchiveResult() {}
+
+    public VesselArchiveResult(LocalDateTime cutoff, int archived, int chunks, boolean limitReached, long elapsedMillis) {
+        this.cutoff = cutoff;
+        this.archived = archived;
+        this.chunks = chunks;
+        this.limitReached = limitReached;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getCutoff() { return cutoff; }
+    public void setCutoff(LocalDateTime cutoff) { this.cutoff = cutoff; }
+
+    public int getArchived() { return archived; }
+    public void setArchived(int archived) { this.archived = archived; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public boolean isLimitReached() { return limitReached; }
+    public void setLimitReached(boolean limitReached) { this.limitReached = limitReached; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
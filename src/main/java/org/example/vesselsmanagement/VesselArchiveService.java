@@ -0,0 +1,228 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Moves vessels that have been decommissioned for longer than the retention period from
+ * {@code vessels} to {@code archived_vessels}, keeping the hot table, its indexes and the
+ * in-memory read model to the operational fleet. The job moves one chunk per transaction and
+ * pauses between chunks, so it holds locks briefly and leaves connections free for live
+ * traffic. Archived vessels keep their id and can be restored on demand.
+ */
+@Service
+public class VesselArchiveService {
+
+    private static final String COLUMNS = "id, name, imo_number, type, flag_state, year_built, length_meters, "
+            + "gross_tonnage, status, last_port_of_call, next_port_of_call, estimated_arrival, created_at";
+
+    private static final String ARCHIVE_VESSELS_SQL = "INSERT INTO archived_vessels (" + COLUMNS + ", updated_at, version, archived_at) "
+            + "SELECT " + COLUMNS + ", updated_at, version, :archivedAt FROM vessels WHERE id IN (:ids)";
+
+    private static final String DELETE_VESSELS_SQL = "DELETE FROM vessels WHERE id IN (:ids)";
+
+    // Restored vessels count as changed now, so the retention period starts over; the version carries
+    // on from the archived row, so the restore orders after the removal
+    private static final String RESTORE_VESSEL_SQL = "INSERT INTO vessels (" + COLUMNS + ", updated_at, version) "
+            + "SELECT " + COLUMNS + ", :restoredAt, version + 1 FROM archived_vessels WHERE id = :id";
+
+    private static final Logger log = LoggerFactory.getLogger(VesselArchiveService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private ArchivedVesselRepository archivedVesselRepository;
+
+    @Autowired
+    private VesselChangeLog vesselChangeLog;
+
+    @Autowired
+    private VesselPositionService vesselPositionService;
+
+    @Autowired
+    private List<VesselCacheInvalidator> invalidators;
+
+    @Value("${vessels.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vessels.archive.retention-days:365}")
+    private long retentionDays;
+
+    @Value("${vessels.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${vessels.archive.pause-ms:200}")
+    private long pauseMillis;
+
+    @Value("${vessels.archive.max-per-run:50000}")
+    private int maxPerRun;
+
+    @Scheduled(fixedDelayString = "${vessels.archive.interval-ms:3600000}",
+            initialDelayString = "${vessels.archive.interval-ms:3600000}")
+    public void archiveScheduled() {
+        if (enabled) {
+            archiveDecommissioned();
+        }
+    }
+
+    public VesselArchiveResult archiveDecommissioned() {
+        return archiveDecommissionedBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Archives vessels that are decommissioned and unchanged since before {@code cutoff}, in
+     * chunks of {@code vessels.archive.chunk-size} with {@code vessels.archive.pause-ms} between
+     * them, stopping after {@code vessels.archive.max-per-run}.
+     */
+    public synchronized VesselArchiveResult archiveDecommissionedBefore(LocalDateTime cutoff) {
+        long start = System.nanoTime();
+        int archived = 0;
+        int chunks = 0;
+        boolean limitReached = false;
+        while (true) {
+            int limit = Math.min(chunkSize, maxPerRun - archived);
+            if (limit <= 0) {
+                limitReached = true;
+                break;
+            }
+            int found = transactionTemplate.execute(status -> archiveChunk(cutoff, limit));
+            if (found == 0) {
+                break;
+            }
+            archived += found;
+            chunks++;
+            if (found < limit) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        if (archived > 0) {
+            log.info("Archived {} decommissioned vessels in {} chunks in {} ms", archived, chunks, elapsedMillis);
+        }
+        return new VesselArchiveResult(cutoff, archived, chunks, limitReached, elapsedMillis);
+    }
+
+    @Transactional
+    public Vessel restoreVessel(Long id) {
+        ArchivedVessel archived = getArchivedVessel(id);
+        if (vesselRepository.existsByImoNumber(archived.getImoNumber())) {
+            throw new IllegalArgumentException("Vessel with IMO number " + archived.getImoNumber() + " already exists");
+        }
+        NativeQuery<?> restore = nativeQuery(RESTORE_VESSEL_SQL, Vessel.class);
+        restore.setParameter("restoredAt", LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), StandardBasicTypes.LOCAL_DATE_TIME);
+        restore.setParameter("id", id);
+        restore.executeUpdate();
+        archivedVesselRepository.delete(archived);
+
+        vesselChangeLog.recordChange(id, archived.getImoNumber());
+        afterCommit(() -> invalidators.forEach(invalidator -> invalidator.invalidateVessels(List.of(id))));
+        return vesselRepository.findById(id).orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ArchivedVessel> getArchivedVessels(Pageable pageable) {
+        return archivedVesselRepository.findAll(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public ArchivedVessel getArchivedVessel(Long id) {
+        return archivedVesselRepository.findById(id)
+                .orElseThrow(() -> new VesselNotFoundException("Archived vessel not found with id: " + id));
+    }
+
+    /**
+     * Drops archive entries for vessels that are live again, e.g. after a snapshot taken before
+     * they were archived has been restored. The live row wins.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int discardArchivedLiveVessels() {
+        return nativeQuery("DELETE FROM archived_vessels a WHERE EXISTS (SELECT 1 FROM vessels v WHERE v.id = a.id)",
+                ArchivedVessel.class).executeUpdate();
+    }
+
+    // Returns the number of vessels found due, which may exceed those moved if another instance got there first
+    private int archiveChunk(LocalDateTime cutoff, int limit) {
+        List<Vessel> due = vesselRepository.findForArchiving(VesselStatus.DECOMMISSIONED, cutoff, Limit.of(limit));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = due.stream().map(Vessel::getId).toList();
+        due.forEach(entityManager::detach);
+
+        NativeQuery<?> copy = nativeQuery(ARCHIVE_VESSELS_SQL, ArchivedVessel.class);
+        copy.setParameter("archivedAt", LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), StandardBasicTypes.LOCAL_DATE_TIME);
+        copy.setParameter("ids", ids);
+        copy.executeUpdate();
+        NativeQuery<?> delete = nativeQuery(DELETE_VESSELS_SQL, Vessel.class);
+        delete.setParameter("ids", ids);
+        delete.executeUpdate();
+
+        vesselPositionService.vesselsDeleted(ids);
+        due.forEach(vessel -> vesselChangeLog.recordChange(vessel.getId(), vessel.getImoNumber()));
+        // The rows left without an entity write, so the local caches and read model are told directly
+        afterCommit(() -> invalidators.forEach(invalidator -> invalidator.invalidateVessels(ids)));
+        return due.size();
+    }
+
+    private NativeQuery<?> nativeQuery(String sql, Class<?> synchronizedEntity) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        // Invalidates only the affected entity's cache regions instead of the whole second-level cache
+        query.addSynchronizedEntityClass(synchronizedEntity);
+        return query;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.vesselsmanagement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VesselBatchResult<K> {
+    private List<Vessel> vessels;
+    private List<K> notFound;
+
+    public VesselBatchResult() {
+        this.vessels = new ArrayList<>();
+        this.notFound = new ArrayList<>();
+    }
+
+    public VesselBatchResult(List<Vessel> vessels, List<K> notFound) {
+        this.vessels = vessels;
+        this.notFound = notFound;
+    }
+
+    // Getters and Setters
+    public List<Vessel> getVessels() { return vessels; }
+    public void setVessels(List<Vessel> vessels) { this.vessels = vessels; }
+
+    public List<K> getNotFound() { return notFound; }
+    public void setNotFound(List<K> notFound) { this.notFound = notFound; }
+}
@@ -0,0 +1,14 @@
+package org.example.vesselsmanagement;
+
+import java.util.Collection;
+
+/**
+ * An in-process cache of vessel data that must drop entries when another instance changes
+ * those vessels. Implementations are discovered as beans by {@link VesselChangeLog}.
+ */
+public interface VesselCacheInvalidator {
+
+    void invalidateVessels(Collection<Long> vesselIds);
+
+    void invalidateAll();
+}
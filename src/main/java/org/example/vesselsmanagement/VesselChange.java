@@ -0,0 +1,50 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "vessel_changes", indexes = @Index(name = "idx_vessel_changes_changed_at", columnList = "changed_at"))
+public class VesselChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vessel_id")
+    private Long vesselId;
+
+    @Column(name = "imo_number", length = 10)
+    private String imoNumber;
+
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Constructors
+    public VesselChange() {}
+
+    public VesselChange(Long vesselId, String imoNumber, String originNode) {
+        this.vesselId = vesselId;
+        this.imoNumber = imoNumber;
+        this.originNode = originNode;
+        this.changedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getVesselId() { return vesselId; }
+    public void setVesselId(Long vesselId) { this.vesselId = vesselId; }
+
+    public String getImoNumber() { return imoNumber; }
+    public void setImoNumber(String imoNumber) { this.imoNumber = imoNumber; }
+
+    public String getOriginNode() { return originNode; }
+    public void setOriginNode(String originNode) { this.originNode = originNode; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
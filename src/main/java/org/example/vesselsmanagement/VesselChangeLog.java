@@ -0,0 +1,140 @@
+package org.example.vesselsmanagement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps in-process vessel caches coherent across instances sharing one database. Every write
+ * appends a row to {@code vessel_changes} in the writer's transaction; each instance polls the
+ * table and invalidates the affected vessels in all {@link VesselCacheInvalidator}s, so a peer's
+ * write is visible here within one poll interval. A transaction takes its change ids and
+ * timestamps when it writes, not when it commits, so each poll re-reads every row stamped within
+ * {@code vessels.coherence.max-transaction-age-ms} before the previous poll and skips those
+ * already applied. A transaction that commits late is therefore still picked up, however many
+ * other changes committed before it.
+ */
+@Component
+public class VesselChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(VesselChangeLog.class);
+
+    @Autowired
+    private VesselChangeRepository vesselChangeRepository;
+
+    // Resolved per use: caches such as the read model depend on repositories that depend on this log
+    @Autowired
+    private ObjectProvider<VesselCacheInvalidator> invalidators;
+
+    @Value("${vessels.coherence.retention-minutes:10}")
+    private long retentionMinutes;
+
+    // Longest a writing transaction may stay open, plus clock skew between instances and replica lag
+    @Value("${vessels.coherence.max-transaction-age-ms:60000}")
+    private long maxTransactionAgeMillis;
+
+    private final String nodeId;
+    private volatile LocalDateTime lastPollAt;
+    // Changes applied within the re-read window, by id, with their timestamp so they can be dropped
+    private final Map<Long, LocalDateTime> appliedIds = new HashMap<>();
+
+    public VesselChangeLog(@Value("${vessels.coherence.node-id:}") String nodeId) {
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Long vesselId, String imoNumber) {
+        vesselChangeRepository.save(new VesselChange(vesselId, imoNumber, getNodeId()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(Collection<String> imoNumbers) {
+        List<VesselChange> changes = new ArrayList<>(imoNumbers.size());
+        for (String imoNumber : imoNumbers) {
+            changes.add(new VesselChange(null, imoNumber, getNodeId()));
+        }
+        vesselChangeRepository.saveAll(changes);
+    }
+
+    // A change naming neither vessel nor IMO number tells peers to drop all cached vessel data
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFleetChange() {
+        vesselChangeRepository.save(new VesselChange(null, null, getNodeId()));
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void startFromLatest() {
+        if (lastPollAt == null) {
+            lastPollAt = LocalDateTime.now();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vessels.coherence.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (lastPollAt == null) {
+            return;
+        }
+        LocalDateTime pollAt = LocalDateTime.now();
+        LocalDateTime since = lastPollAt.minus(Duration.ofMillis(maxTransactionAgeMillis));
+        List<VesselChange> changes = vesselChangeRepository.findForeignChangesSince(since, getNodeId());
+
+        Set<Long> vesselIds = new LinkedHashSet<>();
+        Set<String> imoNumbers = new LinkedHashSet<>();
+        boolean fleetChanged = false;
+        for (VesselChange change : changes) {
+            if (appliedIds.putIfAbsent(change.getId(), change.getChangedAt()) != null) {
+                continue;
+            }
+            if (change.getVesselId() != null) {
+                vesselIds.add(change.getVesselId());
+            } else if (change.getImoNumber() != null) {
+                imoNumbers.add(change.getImoNumber());
+            } else {
+                fleetChanged = true;
+            }
+        }
+        appliedIds.values().removeIf(changedAt -> changedAt.isBefore(since));
+        lastPollAt = pollAt;
+
+        if (fleetChanged) {
+            log.debug("Invalidating all vessels after a fleet-wide change by another instance");
+            invalidators.forEach(VesselCacheInvalidator::invalidateAll);
+            return;
+        }
+        if (!imoNumbers.isEmpty()) {
+            vesselIds.addAll(vesselChangeRepository.findVesselIdsByImoNumberIn(imoNumbers));
+        }
+        if (!vesselIds.isEmpty() || !imoNumbers.isEmpty()) {
+            log.debug("Invalidating {} vessels changed by other instances", vesselIds.size());
+            invalidators.forEach(invalidator -> invalidator.invalidateVessels(vesselIds));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vessels.coherence.prune-interval-ms:60000}")
+    @Transactional
+    public void prune() {
+        vesselChangeRepository.deleteChangedBefore(LocalDateTime.now().minusMinutes(retentionMinutes));
+    }
+}
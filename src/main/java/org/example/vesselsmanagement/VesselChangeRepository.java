@@ -0,0 +1,24 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VesselChangeRepository extends JpaRepository<VesselChange, Long> {
+
+    @Query("SELECT c FROM VesselChange c WHERE c.changedAt >= :since AND c.originNode <> :node ORDER BY c.id")
+    List<VesselChange> findForeignChangesSince(@Param("since") LocalDateTime since, @Param("node") String node);
+
+    @Query("SELECT v.id FROM Vessel v WHERE v.imoNumber IN :imoNumbers")
+    List<Long> findVesselIdsByImoNumberIn(@Param("imoNumbers") Collection<String> imoNumbers);
+
+    @Modifying
+    @Query("DELETE FROM VesselChange c WHERE c.changedAt < :cutoff")
+    int deleteChangedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,7 +1,12 @@
 package org.example.vesselsmanagement;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +16,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@Validated
 @RequestMapping("/api/vessels")
 @Tag(name = "Vessels", description = "Marine vessel management operations")
 public class VesselController {
@@ -22,9 +29,12 @@ public class VesselController {
     @Autowired
     private VesselService vesselService;
 
+    @Autowired
+    private VesselJsonCache vesselJsonCache;
+
     @GetMapping
     @Operation(summary = "Get all vessels", description = "Retrieve all vessels with pagination support")
-    public ResponseEntity<Page<Vessel>> getAllVessels(
+    public ResponseEntity<Page<RawValue>> getAllVessels(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort by field") @RequestParam(defaultValue = "name") String sortBy,
@@ -35,21 +45,39 @@ public class VesselController {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         Page<Vessel> vessels = vesselService.getAllVessels(pageable);
-        return ResponseEntity.ok(vessels);
+        return ResponseEntity.ok(vessels.map(vesselJsonCache::toJson));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get vessel by ID", description = "Retrieve a specific vessel by its ID")
-    public ResponseEntity<Vessel> getVesselById(@PathVariable Long id) {
-        Vessel vessel = vesselService.getVesselById(id);
-        return ResponseEntity.ok(vessel);
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = Vessel.class)))
+    public ResponseEntity<RawValue> getVesselById(@PathVariable Long id,
+            @Parameter(description = "Also look in the archive of decommissioned vessels") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        Vessel vessel = vesselService.getVesselById(id, includeArchived);
+        return ResponseEntity.ok(vesselJsonCache.toJson(vessel));
     }
 
     @GetMapping("/imo/{imoNumber}")
     @Operation(summary = "Get vessel by IMO number", description = "Retrieve a vessel by its IMO number")
-    public ResponseEntity<Vessel> getVesselByImoNumber(@PathVariable String imoNumber) {
-        Vessel vessel = vesselService.getVesselByImoNumber(imoNumber);
-        return ResponseEntity.ok(vessel);
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = Vessel.class)))
+    public ResponseEntity<RawValue> getVesselByImoNumber(@PathVariable String imoNumber,
+            @Parameter(description = "Also look in the archive of decommissioned vessels") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        Vessel vessel = vesselService.getVesselByImoNumber(imoNumber, includeArchived);
+        return ResponseEntity.ok(vesselJsonCache.toJson(vessel));
+    }
+
+    @PostMapping("/batch/by-id")
+    @Operation(summary = "Get vessels by IDs", description = "Retrieve many vessels by ID in request order, reporting IDs that were not found")
+    public ResponseEntity<VesselBatchResult<Long>> getVesselsByIds(@RequestBody List<Long> ids) {
+        VesselBatchResult<Long> result = vesselService.getVesselsByIds(ids);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/batch/by-imo")
+    @Operation(summary = "Get vessels by IMO numbers", description = "Retrieve many vessels by IMO number in request order, reporting IMO numbers that were not found")
+    public ResponseEntity<VesselBatchResult<String>> getVesselsByImoNumbers(@RequestBody List<String> imoNumbers) {
+        VesselBatchResult<String> result = vesselService.getVesselsByImoNumbers(imoNumbers);
+        return ResponseEntity.ok(result);
     }
 
     @PostMapping
@@ -66,6 +94,21 @@ public class VesselController {
         return ResponseEntity.ok(updatedVessel);
     }
 
+    @PutMapping("/imo/{imoNumber}")
+    @Operation(summary = "Upsert vessel by IMO number", description = "Create the vessel if the IMO number is unknown, otherwise update it, in a single statement")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = Vessel.class)))
+    public ResponseEntity<RawValue> upsertVesselByImoNumber(@PathVariable String imoNumber, @Valid @RequestBody Vessel vessel) {
+        Vessel upsertedVessel = vesselService.upsertVesselByImoNumber(imoNumber, vessel);
+        return ResponseEntity.ok(vesselJsonCache.toJson(upsertedVessel));
+    }
+
+    @PutMapping("/imo")
+    @Operation(summary = "Upsert vessels by IMO number", description = "Create or update many vessels matched on IMO number; returns the number of vessels inserted or changed")
+    public ResponseEntity<Integer> upsertVessels(@RequestBody List<@Valid Vessel> vessels) {
+        int affected = vesselService.upsertVessels(vessels);
+        return ResponseEntity.ok(affected);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete vessel", description = "Delete a vessel by ID")
     public ResponseEntity<Void> deleteVessel(@PathVariable Long id) {
@@ -75,30 +118,35 @@ public class VesselController {
 
     @GetMapping("/search")
     @Operation(summary = "Search vessels", description = "Search vessels by name")
-    public ResponseEntity<List<Vessel>> searchVessels(@RequestParam String name) {
-        List<Vessel> vessels = vesselService.searchVesselsByName(name);
-        return ResponseEntity.ok(vessels);
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Vessel.class))))
+    public ResponseEntity<List<RawValue>> searchVessels(@RequestParam String name,
+            @Parameter(description = "Also search the archive of decommissioned vessels") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<Vessel> vessels = vesselService.searchVesselsByName(name, includeArchived);
+        return ResponseEntity.ok(vesselJsonCache.toJson(vessels));
     }
 
     @GetMapping("/type/{type}")
     @Operation(summary = "Get vessels by type", description = "Retrieve all vessels of a specific type")
-    public ResponseEntity<List<Vessel>> getVesselsByType(@PathVariable VesselType type) {
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Vessel.class))))
+    public ResponseEntity<List<RawValue>> getVesselsByType(@PathVariable VesselType type) {
         List<Vessel> vessels = vesselService.getVesselsByType(type);
-        return ResponseEntity.ok(vessels);
+        return ResponseEntity.ok(vesselJsonCache.toJson(vessels));
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get vessels by status", description = "Retrieve all vessels with a specific status")
-    public ResponseEntity<List<Vessel>> getVesselsByStatus(@PathVariable VesselStatus status) {
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Vessel.class))))
+    public ResponseEntity<List<RawValue>> getVesselsByStatus(@PathVariable VesselStatus status) {
         List<Vessel> vessels = vesselService.getVesselsByStatus(status);
-        return ResponseEntity.ok(vessels);
+        return ResponseEntity.ok(vesselJsonCache.toJson(vessels));
     }
 
     @GetMapping("/flag/{flagState}")
     @Operation(summary = "Get vessels by flag state", description = "Retrieve all vessels registered under a specific flag state")
-    public ResponseEntity<List<Vessel>> getVesselsByFlagState(@PathVariable String flagState) {
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = Vessel.class))))
+    public ResponseEntity<List<RawValue>> getVesselsByFlagState(@PathVariable String flagState) {
         List<Vessel> vessels = vesselService.getVesselsByFlagState(flagState);
-        return ResponseEntity.ok(vessels);
+        return ResponseEntity.ok(vesselJsonCache.toJson(vessels));
     }
 
     @PatchMapping("/{id}/status")
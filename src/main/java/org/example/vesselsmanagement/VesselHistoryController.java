@@ -0,0 +1,58 @@
+package org.example.vesselsmanagement;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/vessels")
+@Tag(name = "Vessel History", description = "Point-in-time and historical vessel state")
+public class VesselHistoryController {
+
+    @Autowired
+    private VesselHistoryService vesselHistoryService;
+
+    @GetMapping("/{id}/as-of")
+    @Operation(summary = "Get vessel as of a time", description = "Retrieve the state a vessel had at the given time")
+    public ResponseEntity<VesselVersion> getVesselAsOf(
+            @PathVariable Long id,
+            @Parameter(description = "Point in time (ISO-8601)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(vesselHistoryService.getVesselAsOf(id, at));
+    }
+
+    @GetMapping("/imo/{imoNumber}/as-of")
+    @Operation(summary = "Get vessel by IMO number as of a time", description = "Retrieve the state of the vessel that carried the IMO number at the given time")
+    public ResponseEntity<VesselVersion> getVesselAsOfByImoNumber(
+            @PathVariable String imoNumber,
+            @Parameter(description = "Point in time (ISO-8601)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(vesselHistoryService.getVesselAsOfByImoNumber(imoNumber, at));
+    }
+
+    @GetMapping("/as-of")
+    @Operation(summary = "Get fleet as of a time", description = "Retrieve every vessel that existed at the given time, in the state it had then")
+    public ResponseEntity<Page<VesselVersion>> getFleetAsOf(
+            @Parameter(description = "Point in time (ISO-8601)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("vesselId"));
+        return ResponseEntity.ok(vesselHistoryService.getFleetAsOf(at, pageable));
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get vessel history", description = "Retrieve the versions of a vessel in effect between two times, oldest first")
+    public ResponseEntity<List<VesselVersion>> getVesselHistory(
+            @PathVariable Long id,
+            @Parameter(description = "Range start (ISO-8601)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Range end (ISO-8601), defaults to now") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(vesselHistoryService.getVesselHistory(id, from, to != null ? to : LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,229 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only version history of vessels. Versions are written in the transaction of the change
+ * they record and live in their own table, so the vessels table, its indexes and its caches are
+ * untouched by history reads. History reads are read-only transactions and therefore go to a
+ * replica when one is configured. Periodic checkpoints record which version each vessel had, so a
+ * fleet read starts from the latest one instead of every version before it.
+ */
+@Service
+public class VesselHistoryService {
+
+    // Each copied row draws a whole sequence value, which the pooled generator treats as a block of
+    // ids of its own, so these rows never collide with ids Hibernate hands out
+    private static final String COPY_VESSELS_SQL = "INSERT INTO vessel_versions (id, vessel_id, valid_from, deleted, name, "
+            + "imo_number, type, flag_state, year_built, length_meters, gross_tonnage, status, last_port_of_call, "
+            + "next_port_of_call, estimated_arrival) "
+            + "SELECT NEXT VALUE FOR vessel_versions_seq, v.id, %s, %s, v.name, v.imo_number, v.type, v.flag_state, v.year_built, "
+            + "v.length_meters, v.gross_tonnage, v.status, v.last_port_of_call, v.next_port_of_call, v.estimated_arrival "
+            + "FROM vessels v";
+
+    private static final String REMOVED_VESSELS_SQL = "INSERT INTO vessel_versions (id, vessel_id, valid_from, deleted, name, "
+            + "imo_number, type, flag_state, year_built, length_meters, gross_tonnage, status, last_port_of_call, "
+            + "next_port_of_call, estimated_arrival) "
+            + "SELECT NEXT VALUE FOR vessel_versions_seq, h.vessel_id, :at, TRUE, h.name, h.imo_number, h.type, h.flag_state, h.year_built, "
+            + "h.length_meters, h.gross_tonnage, h.status, h.last_port_of_call, h.next_port_of_call, h.estimated_arrival "
+            + "FROM vessel_versions h WHERE h.deleted = FALSE AND h.vessel_id > :afterId AND h.vessel_id <= :toId "
+            + "AND NOT EXISTS (SELECT 1 FROM vessels v WHERE v.id = h.vessel_id) "
+            + "AND NOT EXISTS (SELECT 1 FROM archived_vessels a WHERE a.id = h.vessel_id) "
+            + "AND NOT EXISTS (SELECT 1 FROM vessel_versions n WHERE n.vessel_id = h.vessel_id "
+            + "AND (n.valid_from > h.valid_from OR (n.valid_from = h.valid_from AND n.id > h.id)))";
+
+    // The vessels' versions in effect at :at, from the previous checkpoint when %s narrows to it
+    private static final String CHECKPOINT_SQL = "INSERT INTO vessel_version_checkpoints (checkpoint_at, version_id) "
+            + "SELECT :at, v.id FROM vessel_versions v WHERE v.valid_from <= :at AND v.deleted = FALSE%s "
+            + "AND NOT EXISTS (SELECT 1 FROM vessel_versions n WHERE n.vessel_id = v.vessel_id AND n.valid_from <= :at "
+            + "AND (n.valid_from > v.valid_from OR (n.valid_from = v.valid_from AND n.id > v.id)))";
+
+    private static final String FROM_PREVIOUS_CHECKPOINT = " AND (v.valid_from > :previous OR v.id IN "
+            + "(SELECT c.version_id FROM vessel_version_checkpoints c WHERE c.checkpoint_at = :previous))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private VesselVersionRepository vesselVersionRepository;
+
+    @Autowired
+    private VesselVersionCheckpointRepository checkpointRepository;
+
+    // Versions are stamped at flush and become visible at commit; a checkpoint stays this far
+    // behind the clock so versions of transactions still running are not left out of it
+    @Value("${vessels.history.checkpoint-lag-ms:60000}")
+    private long checkpointLagMillis;
+
+    /**
+     * Records the vessel's current state, valid from its {@code updatedAt}, so the version carries
+     * the same timestamp as the row. Callers flush the vessel first for the timestamp to be final.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordVersion(Vessel vessel) {
+        vesselVersionRepository.save(new VesselVersion(vessel, vessel.getUpdatedAt(), false));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(Vessel vessel) {
+        vesselVersionRepository.save(new VesselVersion(vessel, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), true));
+    }
+
+    /**
+     * Copies the vessels an upsert just inserted or changed into the history with one
+     * INSERT ... SELECT. Rows the upsert left alone keep their older {@code updated_at}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordUpsertedVersions(Collection<String> imoNumbers, LocalDateTime modifiedAt) {
+        NativeQuery<?> query = entityManager.createNativeQuery(copyVessels("v.updated_at", false)
+                + " WHERE v.updated_at = :modifiedAt AND v.imo_number IN (:imoNumbers)").unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(VesselVersion.class);
+        query.setParameter("modifiedAt", modifiedAt, StandardBasicTypes.LOCAL_DATE_TIME);
+        query.setParameter("imoNumbers", imoNumbers);
+        return query.executeUpdate();
+    }
+
+    // Gives vessels that predate the history (seed data, earlier releases) a starting version
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissingVersions() {
+        NativeQuery<?> query = entityManager.createNativeQuery(copyVessels("v.updated_at", false)
+                + " WHERE NOT EXISTS (SELECT 1 FROM vessel_versions h WHERE h.vessel_id = v.id)").unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(VesselVersion.class);
+        if (query.executeUpdate() > 0) {
+            // Backdated versions, which checkpoints taken since do not know about
+            checkpointRepository.deleteAllInBatch();
+        }
+    }
+
+    /**
+     * Closes the history of vessels with ids in {@code (afterId, toId]} that an operation replacing
+     * the fleet left out, by copying their latest open version as a tombstone. Vessels that are
+     * still present get a fresh version from {@link #recordVersions} instead, so they need no
+     * tombstone, and archived vessels have not been removed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordRemovedVessels(LocalDateTime at, long afterId, long toId) {
+        NativeQuery<?> query = entityManager.createNativeQuery(REMOVED_VESSELS_SQL).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(VesselVersion.class);
+        query.setParameter("at", at, StandardBasicTypes.LOCAL_DATE_TIME);
+        query.setParameter("afterId", afterId);
+        query.setParameter("toId", toId);
+        return discardCheckpointsFrom(at, query.executeUpdate());
+    }
+
+    /**
+     * Copies the current rows of the given vessels into the history, valid from {@code at}. A
+     * vessel that already has a version at that time is skipped, so a chunk may be recorded twice.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordVersions(LocalDateTime at, Collection<Long> vesselIds) {
+        NativeQuery<?> query = entityManager.createNativeQuery(copyVessels(":at", false) + " WHERE v.id IN (:ids) "
+                + "AND NOT EXISTS (SELECT 1 FROM vessel_versions h WHERE h.vessel_id = v.id AND h.valid_from = :at)")
+                .unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(VesselVersion.class);
+        query.setParameter("at", at, StandardBasicTypes.LOCAL_DATE_TIME);
+        query.setParameter("ids", vesselIds);
+        return discardCheckpointsFrom(at, query.executeUpdate());
+    }
+
+    // A restore stamps all its chunks with the time it started, which may be behind a checkpoint
+    // taken while it ran
+    private int discardCheckpointsFrom(LocalDateTime at, int recorded) {
+        if (recorded > 0) {
+            checkpointRepository.deleteCheckpointsFrom(at);
+        }
+        return recorded;
+    }
+
+    @Scheduled(fixedDelayString = "${vessels.history.checkpoint-interval-ms:86400000}",
+            initialDelayString = "${vessels.history.checkpoint-interval-ms:86400000}")
+    @Transactional
+    public void recordCheckpointScheduled() {
+        checkpoint(LocalDateTime.now().minusNanos(checkpointLagMillis * 1_000_000).truncatedTo(ChronoUnit.MICROS));
+    }
+
+    /** Records the version each vessel present at {@code at} had then, unless that time is already a checkpoint. */
+    @Transactional
+    public int recordCheckpoint(LocalDateTime at) {
+        return checkpoint(at.truncatedTo(ChronoUnit.MICROS));
+    }
+
+    private int checkpoint(LocalDateTime at) {
+        LocalDateTime previous = checkpointRepository.findLatestCheckpointAt(at).orElse(null);
+        if (at.equals(previous)) {
+            return 0;
+        }
+        NativeQuery<?> query = entityManager.createNativeQuery(String.format(CHECKPOINT_SQL,
+                previous != null ? FROM_PREVIOUS_CHECKPOINT : "")).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(VesselVersionCheckpoint.class);
+        query.setParameter("at", at, StandardBasicTypes.LOCAL_DATE_TIME);
+        if (previous != null) {
+            query.setParameter("previous", previous, StandardBasicTypes.LOCAL_DATE_TIME);
+        }
+        return query.executeUpdate();
+    }
+
+    private static String copyVessels(String validFrom, boolean deleted) {
+        return String.format(COPY_VESSELS_SQL, validFrom, deleted ? "TRUE" : "FALSE");
+    }
+
+    @Transactional(readOnly = true)
+    public VesselVersion getVesselAsOf(Long vesselId, LocalDateTime at) {
+        return vesselVersionRepository.findFirstByVesselIdAndValidFromLessThanEqualOrderByValidFromDescIdDesc(vesselId, at)
+                .filter(version -> !version.isDeleted())
+                .orElseThrow(() -> new VesselNotFoundException("Vessel not found with id: " + vesselId + " as of " + at));
+    }
+
+    @Transactional(readOnly = true)
+    public VesselVersion getVesselAsOfByImoNumber(String imoNumber, LocalDateTime at) {
+        // The vessel that last carried this IMO number up to that time, provided it still did then
+        return vesselVersionRepository.findFirstByImoNumberAndValidFromLessThanEqualOrderByValidFromDescIdDesc(imoNumber, at)
+                .flatMap(candidate -> vesselVersionRepository
+                        .findFirstByVesselIdAndValidFromLessThanEqualOrderByValidFromDescIdDesc(candidate.getVesselId(), at))
+                .filter(version -> !version.isDeleted() && imoNumber.equals(version.getImoNumber()))
+                .orElseThrow(() -> new VesselNotFoundException("Vessel not found with IMO number: " + imoNumber + " as of " + at));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<VesselVersion> getFleetAsOf(LocalDateTime at, Pageable pageable) {
+        return checkpointRepository.findLatestCheckpointAt(at)
+                .map(checkpointAt -> vesselVersionRepository.findFleetAsOfFromCheckpoint(at, checkpointAt, pageable))
+                .orElseGet(() -> vesselVersionRepository.findFleetAsOf(at, pageable));
+    }
+
+    /**
+     * Returns the version in effect at {@code from} followed by every version recorded up to
+     * and including {@code to}, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<VesselVersion> getVesselHistory(Long vesselId, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("History range start " + from + " is after end " + to);
+        }
+        List<VesselVersion> history = new ArrayList<>();
+        vesselVersionRepository.findFirstByVesselIdAndValidFromLessThanEqualOrderByValidFromDescIdDesc(vesselId, from)
+                .ifPresent(history::add);
+        history.addAll(vesselVersionRepository
+                .findByVesselIdAndValidFromGreaterThanAndValidFromLessThanEqualOrderByValidFromAscIdAsc(vesselId, from, to));
+        return history;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.vesselsmanagement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Holds each vessel's JSON representation, serialized once per {@code updatedAt} value.
+ * Fragments are {@link RawValue}s over a {@link SerializedString}, which caches its UTF-8
+ * bytes, so Jackson copies them straight into the response buffer for single vessels,
+ * lists and pages alike.
+ */
+@Component
+public class VesselJsonCache implements VesselCacheInvalidator {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, CachedJson> cache;
+
+    public VesselJsonCache(ObjectMapper objectMapper,
+                           @Value("${vessels.json-cache.maximum-size:100000}") long maximumSize) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public RawValue toJson(Vessel vessel) {
+        Long id = vessel.getId();
+        if (id == null) {
+            return serialize(vessel);
+        }
+        CachedJson cached = cache.getIfPresent(id);
+        if (cached != null && Objects.equals(cached.updatedAt(), vessel.getUpdatedAt())) {
+            return cached.json();
+        }
+        RawValue json = serialize(vessel);
+        cache.put(id, new CachedJson(vessel.getUpdatedAt(), json));
+        return json;
+    }
+
+    public List<RawValue> toJson(List<Vessel> vessels) {
+        List<RawValue> fragments = new ArrayList<>(vessels.size());
+        for (Vessel vessel : vessels) {
+            fragments.add(toJson(vessel));
+        }
+        return fragments;
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateVessels(Collection<Long> vesselIds) {
+        cache.invalidateAll(vesselIds);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private RawValue serialize(Vessel vessel) {
+        try {
+            return new RawValue(new SerializedString(objectMapper.writeValueAsString(vessel)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize vessel " + vessel.getId(), e);
+        }
+    }
+
+    private record CachedJson(LocalDateTime updatedAt, RawValue json) {
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "vessel_positions", indexes = @Index(name = "idx_vessel_positions_written_at", columnList = "written_at"))
+public class VesselPosition {
+    @Id
+    @Column(name = "vessel_id")
+    private Long vesselId;
+
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    @Column(nullable = false)
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    @Column(nullable = false)
+    private Double longitude;
+
+    @DecimalMin(value = "0.0", message = "Course must be between 0 and 360 degrees")
+    @DecimalMax(value = "360.0", inclusive = false, message = "Course must be between 0 and 360 degrees")
+    private Double course;
+
+    @DecimalMin(value = "0.0", message = "Speed must be positive")
+    private Double speed;
+
+    @Column(name = "reported_at", nullable = false)
+    private LocalDateTime reportedAt;
+
+    // Set by the database when a flush writes the row; reportedAt comes from the client
+    @Column(name = "written_at", insertable = false, updatable = false)
+    private LocalDateTime writtenAt;
+
+    // Constructors
+    public VesselPosition() {}
+
+    public VesselPosition(Long vesselId, Double latitude, Double longitude) {
+        this.vesselId = vesselId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    // Getters and Setters
+    public Long getVesselId() { return vesselId; }
+    public void setVesselId(Long vesselId) { this.vesselId = vesselId; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Double getCourse() { return course; }
+    public void setCourse(Double course) { this.course = course; }
+
+    public Double getSpeed() { return speed; }
+    public void setSpeed(Double speed) { this.speed = speed; }
+
+    public LocalDateTime getReportedAt() { return reportedAt; }
+    public void setReportedAt(LocalDateTime reportedAt) { this.reportedAt = reportedAt; }
+
+    public LocalDateTime getWrittenAt() { return writtenAt; }
+    public void setWrittenAt(LocalDateTime writtenAt) { this.writtenAt = writtenAt; }
+}
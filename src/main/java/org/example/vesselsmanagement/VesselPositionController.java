@@ -0,0 +1,77 @@
+package org.example.vesselsmanagement;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@Validated
+@RequestMapping("/api/vessels")
+@Tag(name = "Vessel Positions", description = "Position reporting and spatial queries")
+public class VesselPositionController {
+
+    @Autowired
+    private VesselPositionService vesselPositionService;
+
+    @PostMapping("/positions")
+    @Operation(summary = "Report positions", description = "Report positions for many vessels; reports older than a vessel's current position are ignored")
+    public ResponseEntity<PositionReportResult> reportPositions(@RequestBody List<@Valid VesselPosition> positions) {
+        return ResponseEntity.ok(vesselPositionService.reportPositions(positions));
+    }
+
+    @PutMapping("/{id}/position")
+    @Operation(summary = "Report vessel position", description = "Report the current position of a vessel")
+    public ResponseEntity<TrackedVessel> reportPosition(@PathVariable Long id, @Valid @RequestBody VesselPosition position) {
+        position.setVesselId(id);
+        PositionReportResult result = vesselPositionService.reportPositions(List.of(position));
+        if (!result.getUnknownVesselIds().isEmpty()) {
+            throw new VesselNotFoundException("Vessel not found with id: " + id);
+        }
+        return ResponseEntity.ok(vesselPositionService.getTrackedVessel(id));
+    }
+
+    @GetMapping("/{id}/position")
+    @Operation(summary = "Get vessel position", description = "Retrieve the last reported position of a vessel")
+    public ResponseEntity<TrackedVessel> getPosition(@PathVariable Long id) {
+        return ResponseEntity.ok(vesselPositionService.getTrackedVessel(id));
+    }
+
+    @GetMapping("/positions/box")
+    @Operation(summary = "Find vessels in a bounding box", description = "Vessels inside the box; minLon greater than maxLon crosses the antimeridian")
+    public ResponseEntity<List<TrackedVessel>> findWithinBox(
+            @RequestParam double minLat, @RequestParam double minLon,
+            @RequestParam double maxLat, @RequestParam double maxLon,
+            @Parameter(description = "Vessel types to include") @RequestParam(required = false) Set<VesselType> type,
+            @Parameter(description = "Vessel statuses to include") @RequestParam(required = false) Set<VesselStatus> status,
+            @Parameter(description = "Maximum number of vessels") @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(vesselPositionService.findWithinBox(minLat, minLon, maxLat, maxLon, type, status, limit));
+    }
+
+    @GetMapping("/positions/radius")
+    @Operation(summary = "Find vessels within a radius", description = "Vessels within the given great-circle distance, nearest first")
+    public ResponseEntity<List<NearbyVessel>> findWithinRadius(
+            @RequestParam double lat, @RequestParam double lon,
+            @Parameter(description = "Radius in kilometres") @RequestParam double radiusKm,
+            @Parameter(description = "Vessel types to include") @RequestParam(required = false) Set<VesselType> type,
+            @Parameter(description = "Vessel statuses to include") @RequestParam(required = false) Set<VesselStatus> status,
+            @Parameter(description = "Maximum number of vessels") @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(vesselPositionService.findWithinRadius(lat, lon, radiusKm, type, status, limit));
+    }
+
+    @GetMapping("/positions/nearest")
+    @Operation(summary = "Find nearest vessels", description = "The k vessels nearest to a point, nearest first")
+    public ResponseEntity<List<NearbyVessel>> findNearest(
+            @RequestParam double lat, @RequestParam double lon,
+            @Parameter(description = "Number of vessels") @RequestParam(defaultValue = "10") int k,
+            @Parameter(description = "Vessel types to include") @RequestParam(required = false) Set<VesselType> type,
+            @Parameter(description = "Vessel statuses to include") @RequestParam(required = false) Set<VesselStatus> status) {
+        return ResponseEntity.ok(vesselPositionService.findNearest(lat, lon, k, type, status));
+    }
+}
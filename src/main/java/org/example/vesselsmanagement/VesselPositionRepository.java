@@ -0,0 +1,40 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VesselPositionRepository extends JpaRepository<VesselPosition, Long> {
+
+    String SELECT_TRACKED = "SELECT new org.example.vesselsmanagement.TrackedVessel(v.id, v.name, v.imoNumber, v.type, "
+            + "v.status, p.latitude, p.longitude, p.course, p.speed, p.reportedAt) "
+            + "FROM Vessel v LEFT JOIN VesselPosition p ON p.vesselId = v.id";
+
+    @Query(SELECT_TRACKED)
+    List<TrackedVessel> findAllTracked();
+
+    @Query(SELECT_TRACKED + " WHERE v.id IN :ids")
+    List<TrackedVessel> findTrackedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_TRACKED + " WHERE v.imoNumber IN :imoNumbers")
+    List<TrackedVessel> findTrackedByImoNumberIn(@Param("imoNumbers") Collection<String> imoNumbers);
+
+    List<VesselPosition> findByWrittenAtAfter(LocalDateTime writtenAt);
+
+    @Query("SELECT MAX(p.writtenAt) FROM VesselPosition p")
+    LocalDateTime findMaxWrittenAt();
+
+    @Modifying
+    @Query("DELETE FROM VesselPosition p WHERE p.vesselId = :vesselId")
+    int deleteByVesselId(@Param("vesselId") Long vesselId);
+
+    @Modifying
+    @Query("DELETE FROM VesselPosition p WHERE p.vesselId IN :vesselIds")
+    int deleteByVesselIdIn(@Param("vesselIds") Collection<Long> vesselIds);
+}
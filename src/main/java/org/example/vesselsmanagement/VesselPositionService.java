@@ -0,0 +1,274 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Position tracking. Reports update {@link VesselSpatialIndex} immediately and are written behind
+ * to {@code vessel_positions}: the newest report per vessel is kept in memory and flushed as one
+ * JDBC batch per interval, so the database sees at most one write per vessel per flush however
+ * often a vessel reports. Reports not yet flushed are lost if the instance stops, which the next
+ * report from each vessel repairs. Positions live outside the vessel row, leaving its caches,
+ * version history and change log untouched by position traffic.
+ */
+@Service
+public class VesselPositionService implements VesselCacheInvalidator {
+
+    static final int MAX_REPORT_BATCH_SIZE = 10000;
+    static final int MAX_QUERY_LIMIT = 10000;
+    private static final long PEER_REFRESH_OVERLAP_SECONDS = 10;
+    private static final LocalDateTime NO_WRITES = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String UPSERT_POSITION_SQL = "MERGE INTO vessel_positions t USING (VALUES (CAST(? AS BIGINT), "
+            + "CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION), "
+            + "CAST(? AS DOUBLE PRECISION), CAST(? AS TIMESTAMP))) "
+            + "AS s(vessel_id, latitude, longitude, course, speed, reported_at) ON t.vessel_id = s.vessel_id "
+            + "WHEN MATCHED AND t.reported_at < s.reported_at THEN UPDATE SET latitude = s.latitude, "
+            + "longitude = s.longitude, course = s.course, speed = s.speed, reported_at = s.reported_at, "
+            + "written_at = LOCALTIMESTAMP "
+            + "WHEN NOT MATCHED THEN INSERT (vessel_id, latitude, longitude, course, speed, reported_at, written_at) "
+            + "VALUES (s.vessel_id, s.latitude, s.longitude, s.course, s.speed, s.reported_at, LOCALTIMESTAMP)";
+
+    private static final Logger log = LoggerFactory.getLogger(VesselPositionService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private VesselPositionRepository vesselPositionRepository;
+
+    @Autowired
+    private VesselSpatialIndex vesselSpatialIndex;
+
+    private final Map<Long, VesselPosition> pendingWrites = new ConcurrentHashMap<>();
+    // Database time of the newest flushed row seen; null until the index is first loaded
+    private volatile LocalDateTime peerWatermark;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        // Taken before the load, so rows written meanwhile are picked up by the next refresh
+        LocalDateTime newestWrite = vesselPositionRepository.findMaxWrittenAt();
+        peerWatermark = newestWrite != null ? newestWrite : NO_WRITES;
+        vesselSpatialIndex.clear();
+        vesselPositionRepository.findAllTracked().forEach(this::track);
+        log.info("Spatial index loaded with {} vessels", vesselSpatialIndex.size());
+    }
+
+    public PositionReportResult reportPositions(List<VesselPosition> positions) {
+        if (positions == null || positions.isEmpty()) {
+            return new PositionReportResult();
+        }
+        if (positions.size() > MAX_REPORT_BATCH_SIZE) {
+            throw new IllegalArgumentException("Position reports are limited to " + MAX_REPORT_BATCH_SIZE + " per request");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int accepted = 0;
+        List<Long> unknown = new ArrayList<>();
+        for (VesselPosition position : positions) {
+            if (position.getVesselId() == null) {
+                throw new IllegalArgumentException("Position reports must name a vessel id");
+            }
+            if (position.getReportedAt() == null) {
+                position.setReportedAt(now);
+            }
+            if (vesselSpatialIndex.updatePosition(position.getVesselId(), position.getLatitude(), position.getLongitude(),
+                    position.getCourse(), position.getSpeed(), position.getReportedAt())) {
+                pendingWrites.merge(position.getVesselId(), position,
+                        (queued, latest) -> latest.getReportedAt().isAfter(queued.getReportedAt()) ? latest : queued);
+                accepted++;
+            } else {
+                unknown.add(position.getVesselId());
+            }
+        }
+        return new PositionReportResult(accepted, unknown);
+    }
+
+    public TrackedVessel getTrackedVessel(Long vesselId) {
+        return vesselSpatialIndex.get(vesselId)
+                .filter(TrackedVessel::hasPosition)
+                .orElseThrow(() -> new VesselNotFoundException("No position reported for vessel with id: " + vesselId));
+    }
+
+    public List<TrackedVessel> findWithinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                             Set<VesselType> types, Set<VesselStatus> statuses, int limit) {
+        return vesselSpatialIndex.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude,
+                filter(types, statuses), checkLimit(limit));
+    }
+
+    public List<NearbyVessel> findWithinRadius(double latitude, double longitude, double radiusKm,
+                                               Set<VesselType> types, Set<VesselStatus> statuses, int limit) {
+        return vesselSpatialIndex.withinRadius(latitude, longitude, radiusKm, filter(types, statuses), checkLimit(limit));
+    }
+
+    public List<NearbyVessel> findNearest(double latitude, double longitude, int k,
+                                          Set<VesselType> types, Set<VesselStatus> statuses) {
+        return vesselSpatialIndex.nearest(latitude, longitude, checkLimit(k), filter(types, statuses));
+    }
+
+    @Scheduled(fixedDelayString = "${vessels.positions.flush-interval-ms:500}")
+    @Transactional
+    public void flushPendingWrites() {
+        List<VesselPosition> batch = new ArrayList<>(pendingWrites.size());
+        for (VesselPosition position : pendingWrites.values()) {
+            // Conditional remove keeps a report that arrived after this one was read
+            if (pendingWrites.remove(position.getVesselId(), position) && vesselSpatialIndex.contains(position.getVesselId())) {
+                batch.add(position);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(UPSERT_POSITION_SQL)) {
+                    for (VesselPosition position : batch) {
+                        statement.setLong(1, position.getVesselId());
+                        statement.setDouble(2, position.getLatitude());
+                        statement.setDouble(3, position.getLongitude());
+                        statement.setObject(4, position.getCourse(), Types.DOUBLE);
+                        statement.setObject(5, position.getSpeed(), Types.DOUBLE);
+                        statement.setTimestamp(6, Timestamp.valueOf(position.getReportedAt()));
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+        } catch (RuntimeException ex) {
+            batch.forEach(position -> pendingWrites.putIfAbsent(position.getVesselId(), position));
+            throw ex;
+        }
+    }
+
+    // Picks up positions flushed by other instances sharing the database. The watermark follows the
+    // database's write time rather than the client's report time, which may be late or skewed; the
+    // overlap covers flushes that committed after a later-stamped one.
+    @Scheduled(fixedDelayString = "${vessels.positions.refresh-interval-ms:5000}")
+    @Transactional(readOnly = true)
+    public void refreshFromStore() {
+        LocalDateTime watermark = peerWatermark;
+        if (watermark == null) {
+            return;
+        }
+        LocalDateTime since = watermark.minusSeconds(PEER_REFRESH_OVERLAP_SECONDS);
+        LocalDateTime newest = watermark;
+        for (VesselPosition position : vesselPositionRepository.findByWrittenAtAfter(since)) {
+            vesselSpatialIndex.updatePosition(position.getVesselId(), position.getLatitude(), position.getLongitude(),
+                    position.getCourse(), position.getSpeed(), position.getReportedAt());
+            if (position.getWrittenAt().isAfter(newest)) {
+                newest = position.getWrittenAt();
+            }
+        }
+        peerWatermark = newest;
+    }
+
+    public void vesselChanged(Vessel vessel) {
+        afterCommit(() -> vesselSpatialIndex.putAttributes(vessel.getId(), vessel.getName(), vessel.getImoNumber(),
+                vessel.getType(), vessel.getStatus()));
+    }
+
+    @Transactional
+    public void vesselDeleted(Long vesselId) {
+        vesselPositionRepository.deleteByVesselId(vesselId);
+        afterCommit(() -> {
+            vesselSpatialIndex.remove(vesselId);
+            pendingWrites.remove(vesselId);
+        });
+    }
+
+    @Transactional
+    public void vesselsDeleted(Collection<Long> vesselIds) {
+        vesselPositionRepository.deleteByVesselIdIn(vesselIds);
+        afterCommit(() -> vesselIds.forEach(vesselId -> {
+            vesselSpatialIndex.remove(vesselId);
+            pendingWrites.remove(vesselId);
+        }));
+    }
+
+    @Transactional(readOnly = true)
+    public void refreshVesselsByImoNumbers(Collection<String> imoNumbers) {
+        vesselPositionRepository.findTrackedByImoNumberIn(imoNumbers).forEach(this::trackAttributes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void invalidateVessels(Collection<Long> vesselIds) {
+        if (vesselIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(vesselIds);
+        for (TrackedVessel vessel : vesselPositionRepository.findTrackedByIdIn(vesselIds)) {
+            trackAttributes(vessel);
+            missing.remove(vessel.vesselId());
+        }
+        missing.forEach(vesselSpatialIndex::remove);
+    }
+
+    @Override
+    public void invalidateAll() {
+        rebuildIndex();
+    }
+
+    private void track(TrackedVessel vessel) {
+        trackAttributes(vessel);
+        if (vessel.hasPosition()) {
+            vesselSpatialIndex.updatePosition(vessel.vesselId(), vessel.latitude(), vessel.longitude(),
+                    vessel.course(), vessel.speed(), vessel.reportedAt());
+        }
+    }
+
+    private void trackAttributes(TrackedVessel vessel) {
+        vesselSpatialIndex.putAttributes(vessel.vesselId(), vessel.name(), vessel.imoNumber(), vessel.type(), vessel.status());
+    }
+
+    private static Predicate<TrackedVessel> filter(Set<VesselType> types, Set<VesselStatus> statuses) {
+        Set<VesselType> typeFilter = types == null || types.isEmpty() ? null : EnumSet.copyOf(types);
+        Set<VesselStatus> statusFilter = statuses == null || statuses.isEmpty() ? null : EnumSet.copyOf(statuses);
+        return vessel -> (typeFilter == null || typeFilter.contains(vessel.type()))
+                && (statusFilter == null || statusFilter.contains(vessel.status()));
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit <= 0 || limit > MAX_QUERY_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_QUERY_LIMIT);
+        }
+        return limit;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
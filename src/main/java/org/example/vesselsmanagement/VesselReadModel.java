@@ -0,0 +1,601 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Immutable, indexed snapshot of the fleet, published through an {@link AtomicReference}. Readers
+ * take the current snapshot and never lock. Writers are serialized; each builds the next snapshot
+ * copy-on-write and swaps it in. Only the parts of each index that a change touches are copied:
+ * one shard of each hash index, and one block of each sorted index involved. The vessels held here
+ * are detached copies that are never modified, so they can be handed out as they are.
+ */
+@Component
+public class VesselReadModel {
+
+    static final Comparator<Vessel> BY_ID = Comparator.comparing(Vessel::getId);
+    static final Comparator<Vessel> BY_NAME = Comparator.comparing(Vessel::getName).thenComparing(Vessel::getId);
+
+    private static final int SHARDS = 64;
+    private static final int BLOCK_SIZE = 256;
+    private static final int MAX_TOMBSTONES = 100_000;
+    private static final Vessel[] EMPTY = new Vessel[0];
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Changes applied while a rebuild reads the database, replayed onto the rebuilt snapshot
+    private List<Changes> changesDuringRebuild;
+    // Last known version of each removed vessel, so that a change committed before the removal but
+    // applied after it cannot bring the vessel back; the oldest are dropped first. Writers only.
+    private final Map<Long, Long> tombstones = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MAX_TOMBSTONES;
+        }
+    };
+
+    public boolean isLoaded() {
+        return current.get() != null;
+    }
+
+    public int size() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot.byId.size() : 0;
+    }
+
+    public Optional<Vessel> get(Long id) {
+        return Optional.ofNullable(loaded().ids.get(id));
+    }
+
+    public Optional<Vessel> getByImoNumber(String imoNumber) {
+        return Optional.ofNullable(loaded().imoNumbers.get(imoNumber));
+    }
+
+    public List<Vessel> getAllById(Collection<Long> ids) {
+        return lookup(ids, loaded().ids);
+    }
+
+    public List<Vessel> getAllByImoNumber(Collection<String> imoNumbers) {
+        return lookup(imoNumbers, loaded().imoNumbers);
+    }
+
+    public List<Vessel> findByType(VesselType type) {
+        return view(loaded().byType.get(type));
+    }
+
+    public List<Vessel> findByStatus(VesselStatus status) {
+        return view(loaded().byStatus.get(status));
+    }
+
+    public List<Vessel> findByFlagState(String flagState) {
+        return view(loaded().byFlagState.get(flagState));
+    }
+
+    public List<Vessel> findByNextPortOfCall(String port) {
+        return view(loaded().byNextPortOfCall.get(port));
+    }
+
+    public List<Vessel> findByLastPortOfCall(String port) {
+        return view(loaded().byLastPortOfCall.get(port));
+    }
+
+    public long countByType(VesselType type) {
+        SortedBlocks vessels = loaded().byType.get(type);
+        return vessels != null ? vessels.size() : 0;
+    }
+
+    // Case-sensitive substring match in id order, like the repository's LIKE query
+    public List<Vessel> searchByName(String fragment) {
+        List<Vessel> matches = new ArrayList<>();
+        for (Vessel vessel : loaded().byId.asList()) {
+            if (vessel.getName().contains(fragment)) {
+                matches.add(vessel);
+            }
+        }
+        return matches;
+    }
+
+    /** Every vessel in id order. */
+    public List<Vessel> findAll() {
+        return view(loaded().byId);
+    }
+
+    /**
+     * Returns the requested page when it can be cut from a sorted index, i.e. when the sort is
+     * by {@code id} or {@code name} (either direction) or absent; empty otherwise.
+     */
+    public Optional<Page<Vessel>> findPage(Pageable pageable) {
+        Snapshot snapshot = loaded();
+        SortedBlocks sorted;
+        boolean descending = false;
+        if (pageable.getSort().isUnsorted()) {
+            sorted = snapshot.byId;
+        } else {
+            List<Sort.Order> orders = pageable.getSort().toList();
+            Sort.Order order = orders.get(0);
+            if (orders.size() > 1 || order.isIgnoreCase()) {
+                return Optional.empty();
+            }
+            if (order.getProperty().equals("id")) {
+                sorted = snapshot.byId;
+            } else if (order.getProperty().equals("name")) {
+                sorted = snapshot.byName;
+            } else {
+                return Optional.empty();
+            }
+            descending = order.isDescending();
+        }
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int total = sorted.size();
+        int size = pageable.isPaged() ? pageable.getPageSize() : total;
+        List<Vessel> content = new ArrayList<>(Math.min(size, total));
+        for (long i = offset; i < total && content.size() < size; i++) {
+            content.add(sorted.get(descending ? total - 1 - (int) i : (int) i));
+        }
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    /** Marks the start of a rebuild; changes applied until {@link #replaceAll} are replayed onto it. */
+    public synchronized void beginRebuild() {
+        changesDuringRebuild = new ArrayList<>();
+    }
+
+    public synchronized void cancelRebuild() {
+        changesDuringRebuild = null;
+    }
+
+    public synchronized void replaceAll(Collection<Vessel> vessels) {
+        Snapshot next = Snapshot.of(vessels);
+        vessels.forEach(vessel -> tombstones.remove(vessel.getId()));
+        if (changesDuringRebuild != null) {
+            for (Changes changes : changesDuringRebuild) {
+                next = applyTo(next, changes);
+            }
+            changesDuringRebuild = null;
+        }
+        current.set(next);
+    }
+
+    /**
+     * Applies committed changes: {@code changed} vessels are inserted or replaced, {@code removedIds}
+     * dropped. A change with an older {@code version} than the copy already held, or than the one
+     * last removed, is ignored, so commits that report out of order cannot roll a vessel back.
+     */
+    public synchronized void apply(Collection<Vessel> changed, Collection<Long> removedIds) {
+        Map<Long, Long> removed = new LinkedHashMap<>();
+        removedIds.forEach(id -> removed.put(id, null));
+        apply(changed, removed, true);
+    }
+
+    /** Like {@link #apply(Collection, Collection)}, for removals whose deleted version is known. */
+    public synchronized void apply(Collection<Vessel> changed, Map<Long, Long> removedVersions) {
+        apply(changed, removedVersions, true);
+    }
+
+    /** Applies changes regardless of {@code version}, for repairs that must replace what is held. */
+    public synchronized void overwrite(Collection<Vessel> changed, Collection<Long> removedIds) {
+        Map<Long, Long> removed = new LinkedHashMap<>();
+        removedIds.forEach(id -> removed.put(id, null));
+        apply(changed, removed, false);
+    }
+
+    private void apply(Collection<Vessel> changed, Map<Long, Long> removedVersions, boolean newerOnly) {
+        Changes changes = new Changes(changed, removedVersions, newerOnly);
+        if (changes.vessels.isEmpty()) {
+            return;
+        }
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(changes);
+        }
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            current.set(applyTo(snapshot, changes));
+        }
+    }
+
+    // Drops changes older than the vessel or tombstone held, then records the removals as tombstones.
+    // A removal of unknown version takes the version held.
+    private Snapshot applyTo(Snapshot snapshot, Changes changes) {
+        Map<Long, Vessel> accepted = new LinkedHashMap<>();
+        changes.vessels.forEach((id, vessel) -> {
+            Vessel held = snapshot.ids.get(id);
+            Long tombstone = tombstones.get(id);
+            if (vessel != null) {
+                if (changes.newerOnly && (held != null ? isOlder(vessel, held.getVersion(), false)
+                        : isOlder(vessel, tombstone, true))) {
+                    return;
+                }
+                tombstones.remove(id);
+            } else {
+                Long removedVersion = changes.removedVersions.get(id);
+                Long version = removedVersion != null ? removedVersion : held != null ? held.getVersion() : null;
+                if (version != null) {
+                    tombstones.merge(id, version, Math::max);
+                }
+            }
+            accepted.put(id, vessel);
+        });
+        return snapshot.with(accepted);
+    }
+
+    // Vessels without a version, e.g. built by hand, are never considered older
+    private static boolean isOlder(Vessel vessel, Long version, boolean orSame) {
+        if (vessel.getVersion() == null || version == null) {
+            return false;
+        }
+        int order = vessel.getVersion().compareTo(version);
+        return order < 0 || (orSame && order == 0);
+    }
+
+    private Snapshot loaded() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            throw new IllegalStateException("Vessel read model is not loaded");
+        }
+        return snapshot;
+    }
+
+    private static <K> List<Vessel> lookup(Collection<K> keys, ShardedIndex<K> index) {
+        List<Vessel> vessels = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            Vessel vessel = index.get(key);
+            if (vessel != null) {
+                vessels.add(vessel);
+            }
+        }
+        return vessels;
+    }
+
+    private static List<Vessel> view(SortedBlocks vessels) {
+        return vessels != null ? vessels.asList() : List.of();
+    }
+
+    // Ids map to their new state, or to null for a removal
+    private static final class Changes {
+        private final Map<Long, Vessel> vessels = new LinkedHashMap<>();
+        private final Map<Long, Long> removedVersions;
+        private final boolean newerOnly;
+
+        Changes(Collection<Vessel> changed, Map<Long, Long> removedVersions, boolean newerOnly) {
+            changed.forEach(vessel -> vessels.put(vessel.getId(), vessel));
+            removedVersions.keySet().forEach(id -> vessels.put(id, null));
+            this.removedVersions = removedVersions;
+            this.newerOnly = newerOnly;
+        }
+    }
+
+    private static final class Snapshot {
+        private final SortedBlocks byId;
+        private final SortedBlocks byName;
+        private final ShardedIndex<Long> ids;
+        private final ShardedIndex<String> imoNumbers;
+        private final Map<VesselType, SortedBlocks> byType;
+        private final Map<VesselStatus, SortedBlocks> byStatus;
+        private final Map<String, SortedBlocks> byFlagState;
+        private final Map<String, SortedBlocks> byNextPortOfCall;
+        private final Map<String, SortedBlocks> byLastPortOfCall;
+
+        private Snapshot(SortedBlocks byId, SortedBlocks byName, ShardedIndex<Long> ids, ShardedIndex<String> imoNumbers,
+                         Map<VesselType, SortedBlocks> byType, Map<VesselStatus, SortedBlocks> byStatus,
+                         Map<String, SortedBlocks> byFlagState, Map<String, SortedBlocks> byNextPortOfCall,
+                         Map<String, SortedBlocks> byLastPortOfCall) {
+            this.byId = byId;
+            this.byName = byName;
+            this.ids = ids;
+            this.imoNumbers = imoNumbers;
+            this.byType = byType;
+            this.byStatus = byStatus;
+            this.byFlagState = byFlagState;
+            this.byNextPortOfCall = byNextPortOfCall;
+            this.byLastPortOfCall = byLastPortOfCall;
+        }
+
+        static Snapshot of(Collection<Vessel> vessels) {
+            Map<Long, Vessel> unique = new HashMap<>();
+            vessels.forEach(vessel -> unique.put(vessel.getId(), vessel));
+            Vessel[] byId = unique.values().toArray(EMPTY);
+            Arrays.sort(byId, BY_ID);
+            Vessel[] byName = byId.clone();
+            Arrays.sort(byName, BY_NAME);
+            return new Snapshot(SortedBlocks.of(byId), SortedBlocks.of(byName),
+                    ShardedIndex.of(byId, Vessel::getId), ShardedIndex.of(byId, Vessel::getImoNumber),
+                    group(byId, new EnumMap<>(VesselType.class), Vessel::getType),
+                    group(byId, new EnumMap<>(VesselStatus.class), Vessel::getStatus),
+                    group(byId, new HashMap<>(), Vessel::getFlagState),
+                    group(byId, new HashMap<>(), Vessel::getNextPortOfCall),
+                    group(byId, new HashMap<>(), Vessel::getLastPortOfCall));
+        }
+
+        // Changes map ids to their new state, or to null for a removal
+        Snapshot with(Map<Long, Vessel> changes) {
+            Map<Long, Vessel> previous = new HashMap<>();
+            List<Vessel> added = new ArrayList<>();
+            Set<Long> dropped = new HashSet<>();
+            changes.forEach((id, vessel) -> {
+                Vessel old = ids.get(id);
+                if (old == null && vessel == null) {
+                    return;
+                }
+                if (old != null) {
+                    previous.put(id, old);
+                }
+                if (vessel != null) {
+                    added.add(vessel);
+                }
+                dropped.add(id);
+            });
+            if (dropped.isEmpty()) {
+                return this;
+            }
+            added.sort(BY_ID);
+            List<Vessel> addedByName = new ArrayList<>(added);
+            addedByName.sort(BY_NAME);
+
+            ShardedIndex<String> nextImoNumbers = imoNumbers.without(previous.values(), Vessel::getImoNumber)
+                    .with(added, Vessel::getImoNumber);
+            return new Snapshot(byId.with(previous.values(), dropped, added, BY_ID),
+                    byName.with(previous.values(), dropped, addedByName, BY_NAME),
+                    ids.without(previous.values(), Vessel::getId).with(added, Vessel::getId), nextImoNumbers,
+                    regroup(byType, new EnumMap<>(VesselType.class), previous.values(), added, dropped, Vessel::getType),
+                    regroup(byStatus, new EnumMap<>(VesselStatus.class), previous.values(), added, dropped, Vessel::getStatus),
+                    regroup(byFlagState, new HashMap<>(), previous.values(), added, dropped, Vessel::getFlagState),
+                    regroup(byNextPortOfCall, new HashMap<>(), previous.values(), added, dropped, Vessel::getNextPortOfCall),
+                    regroup(byLastPortOfCall, new HashMap<>(), previous.values(), added, dropped, Vessel::getLastPortOfCall));
+        }
+
+        private static <K> Map<K, SortedBlocks> group(Vessel[] byId, Map<K, SortedBlocks> groups, Function<Vessel, K> keyOf) {
+            Map<K, List<Vessel>> lists = new HashMap<>();
+            for (Vessel vessel : byId) {
+                K key = keyOf.apply(vessel);
+                if (key != null) {
+                    lists.computeIfAbsent(key, k -> new ArrayList<>()).add(vessel);
+                }
+            }
+            lists.forEach((key, vessels) -> groups.put(key, SortedBlocks.of(vessels.toArray(EMPTY))));
+            return groups;
+        }
+
+        // Copies the outer map and updates only the groups that lost or gained a vessel; vessels
+        // without a key (e.g. no next port) are not grouped
+        private static <K> Map<K, SortedBlocks> regroup(Map<K, SortedBlocks> groups, Map<K, SortedBlocks> next,
+                                                       Collection<Vessel> previous, List<Vessel> added,
+                                                       Set<Long> dropped, Function<Vessel, K> keyOf) {
+            next.putAll(groups);
+            Map<K, List<Vessel>> removals = new HashMap<>();
+            Map<K, List<Vessel>> additions = new HashMap<>();
+            previous.forEach(vessel -> removals.computeIfAbsent(keyOf.apply(vessel), key -> new ArrayList<>()).add(vessel));
+            added.forEach(vessel -> additions.computeIfAbsent(keyOf.apply(vessel), key -> new ArrayList<>()).add(vessel));
+            Set<K> keys = new HashSet<>(removals.keySet());
+            keys.addAll(additions.keySet());
+            keys.remove(null);
+            for (K key : keys) {
+                SortedBlocks merged = groups.getOrDefault(key, SortedBlocks.NONE).with(removals.getOrDefault(key, List.of()),
+                        dropped, additions.getOrDefault(key, List.of()), BY_ID);
+                if (merged.size() == 0) {
+                    next.remove(key);
+                } else {
+                    next.put(key, merged);
+                }
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Sorted vessels split into blocks of at most {@code 2 * BLOCK_SIZE}. A change copies the
+     * blocks it lands in and the block directory, one reference per block, instead of the whole
+     * array; untouched blocks are shared with the previous snapshot.
+     */
+    private static final class SortedBlocks {
+        static final SortedBlocks NONE = new SortedBlocks(List.of());
+
+        private final Vessel[][] blocks;
+        // offsets[i] is the position of the first vessel of blocks[i]; the last entry is the size
+        private final int[] offsets;
+
+        private SortedBlocks(List<Vessel[]> blocks) {
+            this.blocks = blocks.toArray(new Vessel[0][]);
+            this.offsets = new int[this.blocks.length + 1];
+            for (int i = 0; i < this.blocks.length; i++) {
+                offsets[i + 1] = offsets[i] + this.blocks[i].length;
+            }
+        }
+
+        static SortedBlocks of(Vessel[] sorted) {
+            List<Vessel[]> blocks = new ArrayList<>();
+            split(sorted, blocks);
+            return new SortedBlocks(blocks);
+        }
+
+        int size() {
+            return offsets[blocks.length];
+        }
+
+        Vessel get(int index) {
+            int block = Arrays.binarySearch(offsets, 0, blocks.length, index);
+            if (block < 0) {
+                block = -block - 2;
+            }
+            return blocks[block][index - offsets[block]];
+        }
+
+        List<Vessel> asList() {
+            return new BlockList(this);
+        }
+
+        /**
+         * Drops the {@code previous} versions of the changed ids and merges in the {@code added}
+         * ones, which must be sorted by {@code order}.
+         */
+        SortedBlocks with(Collection<Vessel> previous, Set<Long> dropped, List<Vessel> added, Comparator<Vessel> order) {
+            if (blocks.length == 0) {
+                return of(added.toArray(EMPTY));
+            }
+            Map<Integer, List<Vessel>> changed = new TreeMap<>();
+            previous.forEach(vessel -> changed.putIfAbsent(blockOf(vessel, order), new ArrayList<>()));
+            added.forEach(vessel -> changed.computeIfAbsent(blockOf(vessel, order), block -> new ArrayList<>()).add(vessel));
+            List<Vessel[]> next = new ArrayList<>(blocks.length + changed.size());
+            int copied = 0;
+            for (Map.Entry<Integer, List<Vessel>> entry : changed.entrySet()) {
+                int block = entry.getKey();
+                next.addAll(Arrays.asList(blocks).subList(copied, block));
+                split(merge(blocks[block], dropped, entry.getValue(), order), next);
+                copied = block + 1;
+            }
+            next.addAll(Arrays.asList(blocks).subList(copied, blocks.length));
+            return new SortedBlocks(next);
+        }
+
+        // The first block whose last vessel does not sort before the given one, or the last block
+        private int blockOf(Vessel vessel, Comparator<Vessel> order) {
+            int low = 0;
+            int high = blocks.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                Vessel[] block = blocks[mid];
+                if (order.compare(block[block.length - 1], vessel) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Keeps a block up to twice the block size whole; cuts anything larger into full blocks
+        private static void split(Vessel[] sorted, List<Vessel[]> into) {
+            if (sorted.length <= 2 * BLOCK_SIZE) {
+                if (sorted.length > 0) {
+                    into.add(sorted);
+                }
+                return;
+            }
+            for (int from = 0; from < sorted.length; from += BLOCK_SIZE) {
+                into.add(Arrays.copyOfRange(sorted, from, Math.min(from + BLOCK_SIZE, sorted.length)));
+            }
+        }
+
+        // One pass over a sorted block: drops the changed ids and merges in their new versions
+        private static Vessel[] merge(Vessel[] sorted, Set<Long> dropped, List<Vessel> added, Comparator<Vessel> order) {
+            Vessel[] merged = new Vessel[sorted.length + added.size()];
+            int count = 0;
+            int next = 0;
+            for (Vessel vessel : sorted) {
+                if (dropped.contains(vessel.getId())) {
+                    continue;
+                }
+                while (next < added.size() && order.compare(added.get(next), vessel) < 0) {
+                    merged[count++] = added.get(next++);
+                }
+                merged[count++] = vessel;
+            }
+            while (next < added.size()) {
+                merged[count++] = added.get(next++);
+            }
+            return count == merged.length ? merged : Arrays.copyOf(merged, count);
+        }
+    }
+
+    private static final class BlockList extends AbstractList<Vessel> implements RandomAccess {
+        private final SortedBlocks vessels;
+
+        BlockList(SortedBlocks vessels) {
+            this.vessels = vessels;
+        }
+
+        @Override
+        public Vessel get(int index) {
+            Objects.checkIndex(index, vessels.size());
+            return vessels.get(index);
+        }
+
+        @Override
+        public int size() {
+            return vessels.size();
+        }
+    }
+
+    // Hash index split into immutable shards, so a change copies one shard rather than the whole map
+    private static final class ShardedIndex<K> {
+        private final Map<K, Vessel>[] shards;
+
+        private ShardedIndex(Map<K, Vessel>[] shards) {
+            this.shards = shards;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <K> ShardedIndex<K> of(Vessel[] vessels, Function<Vessel, K> keyOf) {
+            Map<K, Vessel>[] shards = new Map[SHARDS];
+            for (int i = 0; i < SHARDS; i++) {
+                shards[i] = new HashMap<>();
+            }
+            for (Vessel vessel : vessels) {
+                K key = keyOf.apply(vessel);
+                shards[shard(key)].put(key, vessel);
+            }
+            return new ShardedIndex<>(shards);
+        }
+
+        Vessel get(K key) {
+            return key != null ? shards[shard(key)].get(key) : null;
+        }
+
+        // Removes entries that still point at the given vessels; a key since taken by another vessel stays
+        ShardedIndex<K> without(Collection<Vessel> vessels, Function<Vessel, K> keyOf) {
+            Map<K, Vessel>[] next = shards.clone();
+            Set<Integer> copied = new HashSet<>();
+            for (Vessel vessel : vessels) {
+                K key = keyOf.apply(vessel);
+                int shard = shard(key);
+                Vessel indexed = next[shard].get(key);
+                if (indexed != null && indexed.getId().equals(vessel.getId())) {
+                    if (copied.add(shard)) {
+                        next[shard] = new HashMap<>(next[shard]);
+                    }
+                    next[shard].remove(key);
+                }
+            }
+            return new ShardedIndex<>(next);
+        }
+
+        ShardedIndex<K> with(Collection<Vessel> vessels, Function<Vessel, K> keyOf) {
+            Map<K, Vessel>[] next = shards.clone();
+            Set<Integer> copied = new HashSet<>();
+            for (Vessel vessel : vessels) {
+                K key = keyOf.apply(vessel);
+                int shard = shard(key);
+                if (copied.add(shard)) {
+                    next[shard] = new HashMap<>(next[shard]);
+                }
+                next[shard].put(key, vessel);
+            }
+            return new ShardedIndex<>(next);
+        }
+
+        private static int shard(Object key) {
+            int hash = key.hashCode();
+            return (hash ^ (hash >>> 16)) & (SHARDS - 1);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.vesselsmanagement;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/read-model")
+@Tag(name = "Read Model", description = "In-memory vessel read model maintenance")
+public class VesselReadModelController {
+
+    @Autowired
+    private VesselReadModelService vesselReadModelService;
+
+    @GetMapping("/consistency")
+    @Operation(summary = "Check read model consistency", description = "Compare the in-memory read model with the database")
+    public ResponseEntity<ReadModelConsistencyReport> checkConsistency(
+            @Parameter(description = "Reload the vessels found to differ") @RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(vesselReadModelService.checkConsistency(repair));
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild read model", description = "Reload the whole read model from the database")
+    public ResponseEntity<Void> rebuild() {
+        vesselReadModelService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
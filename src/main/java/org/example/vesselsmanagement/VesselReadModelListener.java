@@ -0,0 +1,29 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Passes every entity write on {@link Vessel} to the read model, whichever code path made it.
+ * Hibernate obtains the listener from Spring's bean container while the entity manager factory
+ * is built, before the service exists, hence the provider.
+ */
+public class VesselReadModelListener {
+
+    @Autowired
+    private ObjectProvider<VesselReadModelService> vesselReadModelService;
+
+    @PostPersist
+    @PostUpdate
+    void vesselChanged(Vessel vessel) {
+        vesselReadModelService.ifAvailable(service -> service.vesselChanged(vessel));
+    }
+
+    @PostRemove
+    void vesselRemoved(Vessel vessel) {
+        vesselReadModelService.ifAvailable(service -> service.vesselRemoved(vessel));
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Keeps {@link VesselReadModel} in step with the database. Entity writes reach it through
+ * {@link VesselReadModelListener} and are applied once their transaction commits; bulk writes
+ * that bypass the entity (upserts, snapshot restores) and writes made by other instances
+ * reload the affected vessels. A periodic check compares the model with the database and
+ * repairs any difference it confirms. Every change applied is passed on to
+ * {@link StandingQueryService}, which evaluates it against the model's new state.
+ * <p>
+ * All reads here run in a new read-write transaction, so they reach the primary: a read-only
+ * transaction, such as a caller's, may be routed to a replica that lags it.
+ */
+@Service
+public class VesselReadModelService implements VesselCacheInvalidator {
+
+    static final int LOAD_BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_IDS = 100;
+    // The database keeps timestamps to the microsecond; the copies made at commit may carry nanoseconds
+    private static final Duration TIMESTAMP_TOLERANCE = Duration.ofNanos(1000);
+
+    private static final Logger log = LoggerFactory.getLogger(VesselReadModelService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private VesselReadModel vesselReadModel;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private StandingQueryService standingQueryService;
+
+    // Per instance, so that two application contexts in one JVM keep separate pending changes
+    private final Object pendingChangesKey = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        vesselReadModel.beginRebuild();
+        List<Vessel> vessels = new ArrayList<>();
+        try {
+            List<Vessel> batch;
+            do {
+                long afterId = vessels.isEmpty() ? 0 : vessels.get(vessels.size() - 1).getId();
+                batch = loadFromPrimary(repository -> repository.findBatchAfterId(afterId, Limit.of(LOAD_BATCH_SIZE)));
+                vessels.addAll(batch);
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException ex) {
+            // Keeps serving the previous snapshot, or the database if there is none
+            vesselReadModel.cancelRebuild();
+            throw ex;
+        }
+        vesselReadModel.replaceAll(vessels);
+        standingQueryService.vesselsReloaded();
+        log.info("Vessel read model loaded with {} vessels", vessels.size());
+    }
+
+    void vesselChanged(Vessel vessel) {
+        recordChange(vessel, false);
+    }
+
+    void vesselRemoved(Vessel vessel) {
+        recordChange(vessel, true);
+    }
+
+    public void refreshVesselsByImoNumbers(Collection<String> imoNumbers) {
+        List<Vessel> vessels = loadFromPrimary(repository -> repository.findByImoNumberIn(imoNumbers));
+        vesselReadModel.apply(vessels, List.of());
+        standingQueryService.vesselsChanged(vessels.stream().map(Vessel::getId).toList());
+    }
+
+    @Override
+    public void invalidateVessels(Collection<Long> vesselIds) {
+        if (vesselIds.isEmpty()) {
+            return;
+        }
+        List<Vessel> vessels = loadFromPrimary(repository -> repository.findUncachedByIdIn(vesselIds));
+        Set<Long> removed = new HashSet<>(vesselIds);
+        vessels.forEach(vessel -> removed.remove(vessel.getId()));
+        vesselReadModel.apply(vessels, removed);
+        standingQueryService.vesselsChanged(vesselIds);
+    }
+
+    @Override
+    public void invalidateAll() {
+        rebuild();
+    }
+
+    /**
+     * Compares every vessel in the database with the read model. Differences are re-read once
+     * before being reported, so that writes committing during the check are not mistaken for
+     * inconsistencies. With {@code repair}, confirmed differences are reloaded from the database.
+     */
+    public ReadModelConsistencyReport checkConsistency(boolean repair) {
+        if (!vesselReadModel.isLoaded()) {
+            throw new IllegalStateException("Vessel read model is not loaded");
+        }
+        Set<Long> modelIds = new HashSet<>();
+        vesselReadModel.findAll().forEach(vessel -> modelIds.add(vessel.getId()));
+        int modelVessels = modelIds.size();
+
+        Set<Long> suspects = new TreeSet<>();
+        long databaseVessels = 0;
+        long lastId = 0;
+        List<Vessel> batch;
+        do {
+            long afterId = lastId;
+            batch = loadFromPrimary(repository -> repository.findBatchAfterId(afterId, Limit.of(LOAD_BATCH_SIZE)));
+            for (Vessel vessel : batch) {
+                databaseVessels++;
+                lastId = vessel.getId();
+                modelIds.remove(vessel.getId());
+                if (!sameState(vessel, vesselReadModel.get(vessel.getId()).orElse(null))) {
+                    suspects.add(vessel.getId());
+                }
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        suspects.addAll(modelIds);
+
+        List<Long> missing = new ArrayList<>();
+        List<Long> unexpected = new ArrayList<>();
+        List<Long> stale = new ArrayList<>();
+        if (!suspects.isEmpty()) {
+            Map<Long, Vessel> current = new HashMap<>();
+            loadFromPrimary(repository -> repository.findUncachedByIdIn(suspects))
+                    .forEach(vessel -> current.put(vessel.getId(), vessel));
+            for (Long id : suspects) {
+                Vessel stored = current.get(id);
+                Vessel modelled = vesselReadModel.get(id).orElse(null);
+                if (stored == null && modelled != null) {
+                    unexpected.add(id);
+                } else if (stored != null && modelled == null) {
+                    missing.add(id);
+                } else if (!sameState(stored, modelled)) {
+                    stale.add(id);
+                }
+            }
+        }
+
+        boolean inconsistent = !missing.isEmpty() || !unexpected.isEmpty() || !stale.isEmpty();
+        if (inconsistent && repair) {
+            List<Long> differing = new ArrayList<>(missing);
+            differing.addAll(unexpected);
+            differing.addAll(stale);
+            List<Vessel> vessels = loadFromPrimary(repository -> repository.findUncachedByIdIn(differing));
+            Set<Long> removed = new HashSet<>(differing);
+            vessels.forEach(vessel -> removed.remove(vessel.getId()));
+            vesselReadModel.overwrite(vessels, removed);
+            standingQueryService.vesselsChanged(differing);
+        }
+        return new ReadModelConsistencyReport(LocalDateTime.now(), databaseVessels, modelVessels,
+                limit(missing), limit(unexpected), limit(stale), inconsistent && repair);
+    }
+
+    @Scheduled(fixedDelayString = "${vessels.read-model.check-interval-ms:300000}",
+            initialDelayString = "${vessels.read-model.check-interval-ms:300000}")
+    public void checkAndRepair() {
+        if (!vesselReadModel.isLoaded()) {
+            return;
+        }
+        ReadModelConsistencyReport report = checkConsistency(true);
+        if (!report.isConsistent()) {
+            log.warn("Vessel read model differed from the database and was repaired: missing {}, unexpected {}, stale {}",
+                    report.getMissingIds(), report.getUnexpectedIds(), report.getStaleIds());
+        }
+    }
+
+    // Collects the transaction's changes and applies them together once it commits
+    private void recordChange(Vessel vessel, boolean removed) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges change = new PendingChanges();
+            change.add(vessel, removed);
+            apply(change);
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(pendingChangesKey);
+        if (pending == null) {
+            PendingChanges changes = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(pendingChangesKey, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingChangesKey);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(vessel, removed);
+    }
+
+    // Entities are copied only now, after the commit has fixed their final state. A removal
+    // passes on the version that was deleted.
+    private void apply(PendingChanges changes) {
+        List<Vessel> changed = new ArrayList<>();
+        Map<Long, Long> removed = new LinkedHashMap<>();
+        changes.vessels.forEach((id, vessel) -> {
+            if (changes.removedIds.contains(id)) {
+                removed.put(id, vessel.getVersion());
+            } else {
+                changed.add(copyOf(vessel));
+            }
+        });
+        vesselReadModel.apply(changed, removed);
+        standingQueryService.vesselsChanged(changes.vessels.keySet());
+    }
+
+    // Returns detached copies. A new transaction also works from afterCommit callbacks, where the
+    // committed transaction's resources are still bound
+    private List<Vessel> loadFromPrimary(Function<VesselRepository, List<Vessel>> query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction.execute(status -> {
+            List<Vessel> vessels = query.apply(vesselRepository);
+            List<Vessel> copies = new ArrayList<>(vessels.size());
+            vessels.forEach(vessel -> copies.add(copyOf(vessel)));
+            vessels.forEach(entityManager::detach);
+            return copies;
+        });
+    }
+
+    static Vessel copyOf(Vessel vessel) {
+        Vessel copy = new Vessel(vessel.getName(), vessel.getImoNumber(), vessel.getType(), vessel.getFlagState());
+        copy.setId(vessel.getId());
+        copy.setYearBuilt(vessel.getYearBuilt());
+        copy.setLengthMeters(vessel.getLengthMeters());
+        copy.setGrossTonnage(vessel.getGrossTonnage());
+        copy.setStatus(vessel.getStatus());
+        copy.setLastPortOfCall(vessel.getLastPortOfCall());
+        copy.setNextPortOfCall(vessel.getNextPortOfCall());
+        copy.setEstimatedArrival(vessel.getEstimatedArrival());
+        copy.setCreatedAt(vessel.getCreatedAt());
+        copy.setUpdatedAt(vessel.getUpdatedAt());
+        copy.setVersion(vessel.getVersion());
+        return copy;
+    }
+
+    private static boolean sameState(Vessel stored, Vessel modelled) {
+        return modelled != null
+                && Objects.equals(stored.getName(), modelled.getName())
+                && Objects.equals(stored.getImoNumber(), modelled.getImoNumber())
+                && stored.getType() == modelled.getType()
+                && Objects.equals(stored.getFlagState(), modelled.getFlagState())
+                && Objects.equals(stored.getYearBuilt(), modelled.getYearBuilt())
+                && Objects.equals(stored.getLengthMeters(), modelled.getLengthMeters())
+                && Objects.equals(stored.getGrossTonnage(), modelled.getGrossTonnage())
+                && stored.getStatus() == modelled.getStatus()
+                && Objects.equals(stored.getLastPortOfCall(), modelled.getLastPortOfCall())
+                && Objects.equals(stored.getNextPortOfCall(), modelled.getNextPortOfCall())
+                && sameTime(stored.getEstimatedArrival(), modelled.getEstimatedArrival())
+                && sameTime(stored.getCreatedAt(), modelled.getCreatedAt())
+                && sameTime(stored.getUpdatedAt(), modelled.getUpdatedAt())
+                && Objects.equals(stored.getVersion(), modelled.getVersion());
+    }
+
+    private static boolean sameTime(LocalDateTime stored, LocalDateTime modelled) {
+        if (stored == null || modelled == null) {
+            return stored == modelled;
+        }
+        return Duration.between(stored, modelled).abs().compareTo(TIMESTAMP_TOLERANCE) < 0;
+    }
+
+    private static final class PendingChanges {
+        private final Map<Long, Vessel> vessels = new LinkedHashMap<>();
+        private final Set<Long> removedIds = new HashSet<>();
+
+        void add(Vessel vessel, boolean removed) {
+            vessels.put(vessel.getId(), vessel);
+            if (removed) {
+                removedIds.add(vessel.getId());
+            }
+        }
+    }
+
+    private static List<Long> limit(List<Long> ids) {
+        return ids.size() <= MAX_REPORTED_IDS ? ids : new ArrayList<>(ids.subList(0, MAX_REPORTED_IDS));
+    }
+}
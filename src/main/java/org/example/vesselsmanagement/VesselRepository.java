@@ -1,35 +1,81 @@
 package org.example.vesselsmanagement;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface VesselRepository extends JpaRepository<Vessel, Long> {
+public interface VesselRepository extends JpaRepository<Vessel, Long>, VesselRepositoryCustom {
 
+    String QUERY_CACHE_REGION = "vessel-queries";
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     Optional<Vessel> findByImoNumber(String imoNumber);
 
+    @Query("SELECT v FROM Vessel v WHERE v.imoNumber IN :imoNumbers")
+    List<Vessel> findByImoNumberIn(@Param("imoNumbers") Collection<String> imoNumbers);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     List<Vessel> findByType(VesselType type);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     List<Vessel> findByStatus(VesselStatus status);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     List<Vessel> findByFlagState(String flagState);
 
+    // The read model loads through these two, bypassing the second-level cache so it sees committed rows
+    @Query("SELECT v FROM Vessel v WHERE v.id > :afterId ORDER BY v.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Vessel> findBatchAfterId(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT v FROM Vessel v WHERE v.id IN :ids")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Vessel> findUncachedByIdIn(@Param("ids") Collection<Long> ids);
+
+    boolean existsByImoNumber(String imoNumber);
+
+    // Locked so that a vessel cannot change status between being picked for archiving and being moved
+    @Query("SELECT v FROM Vessel v WHERE v.status = :status AND v.updatedAt < :cutoff ORDER BY v.id")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Vessel> findForArchiving(@Param("status") VesselStatus status, @Param("cutoff") LocalDateTime cutoff, Limit limit);
+
     @Query("SELECT v FROM Vessel v WHERE v.name LIKE %:name%")
     List<Vessel> findByNameContaining(@Param("name") String name);
 
     @Query("SELECT v FROM Vessel v WHERE v.yearBuilt BETWEEN :startYear AND :endYear")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     List<Vessel> findByYearBuiltBetween(@Param("startYear") Integer startYear, @Param("endYear") Integer endYear);
 
     @Query("SELECT COUNT(v) FROM Vessel v WHERE v.type = :type")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     Long countByType(@Param("type") VesselType type);
 
     @Query("SELECT v FROM Vessel v WHERE v.grossTonnage > :tonnage")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     List<Vessel> findByGrossTonnageGreaterThan(@Param("tonnage") Double tonnage);
 
     @Query("SELECT v FROM Vessel v WHERE v.flagState = :flagState AND v.status = :status")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
     List<Vessel> findByFlagStateAndStatus(@Param("flagState") String flagState, @Param("status") VesselStatus status);
 }
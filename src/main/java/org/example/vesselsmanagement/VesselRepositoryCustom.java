@@ -0,0 +1,23 @@
+package org.example.vesselsmanagement;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface VesselRepositoryCustom {
+
+    /**
+     * Loads vessels by ID, taking them from the second-level cache where present and
+     * fetching only the misses from the database in batched IN queries.
+     */
+    List<Vessel> findAllByIdCached(Collection<Long> ids);
+
+    /**
+     * Inserts or updates the given vessels, matched on IMO number, with a single MERGE statement.
+     * Rows whose columns already hold the given values are left untouched, so repeating an upsert
+     * does not move {@code updatedAt}; the others get {@code modifiedAt}.
+     *
+     * @return the number of rows inserted or changed
+     */
+    int upsertByImoNumber(List<Vessel> vessels, LocalDateTime modifiedAt);
+}
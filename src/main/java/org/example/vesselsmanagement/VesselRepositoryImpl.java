@@ -0,0 +1,89 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public class VesselRepositoryImpl implements VesselRepositoryCustom {
+
+    private static final String MERGE_SOURCE_ROW = "(CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(10)), CAST(? AS VARCHAR(255)), "
+            + "CAST(? AS VARCHAR(50)), CAST(? AS INTEGER), CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(100)), CAST(? AS TIMESTAMP), "
+            + "CAST(? AS TIMESTAMP))";
+
+    private static final String MERGE_TEMPLATE = "MERGE INTO vessels t USING (VALUES %s) "
+            + "AS s(name, imo_number, type, flag_state, year_built, length_meters, gross_tonnage, status, "
+            + "last_port_of_call, next_port_of_call, estimated_arrival, modified_at) "
+            + "ON t.imo_number = s.imo_number "
+            + "WHEN MATCHED AND (t.name IS DISTINCT FROM s.name OR t.type IS DISTINCT FROM s.type "
+            + "OR t.flag_state IS DISTINCT FROM s.flag_state OR t.year_built IS DISTINCT FROM s.year_built "
+            + "OR t.length_meters IS DISTINCT FROM s.length_meters OR t.gross_tonnage IS DISTINCT FROM s.gross_tonnage "
+            + "OR t.status IS DISTINCT FROM s.status OR t.last_port_of_call IS DISTINCT FROM s.last_port_of_call "
+            + "OR t.next_port_of_call IS DISTINCT FROM s.next_port_of_call "
+            + "OR t.estimated_arrival IS DISTINCT FROM s.estimated_arrival) THEN UPDATE SET "
+            + "name = s.name, type = s.type, flag_state = s.flag_state, year_built = s.year_built, "
+            + "length_meters = s.length_meters, gross_tonnage = s.gross_tonnage, status = s.status, "
+            + "last_port_of_call = s.last_port_of_call, next_port_of_call = s.next_port_of_call, "
+            + "estimated_arrival = s.estimated_arrival, updated_at = s.modified_at, version = t.version + 1 "
+            + "WHEN NOT MATCHED THEN INSERT (name, imo_number, type, flag_state, year_built, length_meters, "
+            + "gross_tonnage, status, last_port_of_call, next_port_of_call, estimated_arrival, created_at, updated_at) "
+            + "VALUES (s.name, s.imo_number, s.type, s.flag_state, s.year_built, s.length_meters, s.gross_tonnage, "
+            + "s.status, s.last_port_of_call, s.next_port_of_call, s.estimated_arrival, s.modified_at, s.modified_at)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Vessel> findAllByIdCached(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Vessel> loaded = entityManager.unwrap(Session.class)
+                .byMultipleIds(Vessel.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .withBatchSize(ids.size())
+                .multiLoad(new ArrayList<>(ids));
+        return loaded.stream().filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    @Transactional
+    public int upsertByImoNumber(List<Vessel> vessels, LocalDateTime modifiedAt) {
+        if (vessels.isEmpty()) {
+            return 0;
+        }
+        String sql = String.format(MERGE_TEMPLATE, String.join(", ", Collections.nCopies(vessels.size(), MERGE_SOURCE_ROW)));
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        // Lets Hibernate invalidate only the Vessel cache regions instead of the whole second-level cache
+        query.addSynchronizedEntityClass(Vessel.class);
+
+        int position = 1;
+        for (Vessel vessel : vessels) {
+            query.setParameter(position++, vessel.getName(), StandardBasicTypes.STRING);
+            query.setParameter(position++, vessel.getImoNumber(), StandardBasicTypes.STRING);
+            query.setParameter(position++, vessel.getType() != null ? vessel.getType().name() : null, StandardBasicTypes.STRING);
+            query.setParameter(position++, vessel.getFlagState(), StandardBasicTypes.STRING);
+            query.setParameter(position++, vessel.getYearBuilt(), StandardBasicTypes.INTEGER);
+            query.setParameter(position++, vessel.getLengthMeters(), StandardBasicTypes.DOUBLE);
+            query.setParameter(position++, vessel.getGrossTonnage(), StandardBasicTypes.DOUBLE);
+            query.setParameter(position++, vessel.getStatus() != null ? vessel.getStatus().name() : null, StandardBasicTypes.STRING);
+            query.setParameter(position++, vessel.getLastPortOfCall(), StandardBasicTypes.STRING);
+            query.setParameter(position++, vessel.getNextPortOfCall(), StandardBasicTypes.STRING);
+            query.setParameter(position++, vessel.getEstimatedArrival(), StandardBasicTypes.LOCAL_DATE_TIME);
+            query.setParameter(position++, modifiedAt, StandardBasicTypes.LOCAL_DATE_TIME);
+        }
+        return query.executeUpdate();
+    }
+}
@@ -1,35 +1,159 @@
 package org.example.vesselsmanagement;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 public class VesselService {
 
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int BATCH_CHUNK_SIZE = 200;
+    static final int UPSERT_CHUNK_SIZE = 100;
+    static final int UPSERT_MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Autowired
     private VesselRepository vesselRepository;
 
+    @Autowired
+    private VesselJsonCache vesselJsonCache;
+
+    @Autowired
+    private VesselChangeLog vesselChangeLog;
+
+    @Autowired
+    private VesselHistoryService vesselHistoryService;
+
+    @Autowired
+    private VesselPositionService vesselPositionService;
+
+    @Autowired
+    private VesselReadModel vesselReadModel;
+
+    @Autowired
+    private VesselReadModelService vesselReadModelService;
+
+    @Autowired
+    private ArchivedVesselRepository archivedVesselRepository;
+
+    // Queries are answered from the read model and take no transaction or connection. Reads inside a
+    // read-write transaction go to the database, which already holds that transaction's own writes.
     public List<Vessel> getAllVessels() {
-        return vesselRepository.findAll();
+        return useReadModel() ? vesselReadModel.findAll() : vesselRepository.findAll();
     }
 
     public Page<Vessel> getAllVessels(Pageable pageable) {
+        if (useReadModel()) {
+            Optional<Page<Vessel>> page = vesselReadModel.findPage(pageable);
+            if (page.isPresent()) {
+                return page.get();
+            }
+        }
         return vesselRepository.findAll(pageable);
     }
 
     public Vessel getVesselById(Long id) {
-        return vesselRepository.findById(id)
-                .orElseThrow(() -> new VesselNotFoundException("Vessel not found with id: " + id));
+        return getVesselById(id, false);
+    }
+
+    // Archived vessels are only looked up when asked for, and only once the live fleet has no match
+    public Vessel getVesselById(Long id, boolean includeArchived) {
+        Optional<Vessel> vessel = useReadModel() ? vesselReadModel.get(id) : vesselRepository.findById(id);
+        if (vessel.isEmpty() && includeArchived) {
+            vessel = archivedVesselRepository.findById(id).map(ArchivedVessel::toVessel);
+        }
+        return vessel.orElseThrow(() -> new VesselNotFoundException("Vessel not found with id: " + id));
     }
 
     public Vessel getVesselByImoNumber(String imoNumber) {
-        return vesselRepository.findByImoNumber(imoNumber)
-                .orElseThrow(() -> new VesselNotFoundException("Vessel not found with IMO number: " + imoNumber));
+        return getVesselByImoNumber(imoNumber, false);
+    }
+
+    public Vessel getVesselByImoNumber(String imoNumber, boolean includeArchived) {
+        Optional<Vessel> vessel = useReadModel() ? vesselReadModel.getByImoNumber(imoNumber) : vesselRepository.findByImoNumber(imoNumber);
+        if (vessel.isEmpty() && includeArchived) {
+            vessel = archivedVesselRepository.findFirstByImoNumberOrderByArchivedAtDesc(imoNumber).map(ArchivedVessel::toVessel);
+        }
+        return vessel.orElseThrow(() -> new VesselNotFoundException("Vessel not found with IMO number: " + imoNumber));
+    }
+
+    public VesselBatchResult<Long> getVesselsByIds(List<Long> ids) {
+        return getVesselsBatch(ids, useReadModel() ? vesselReadModel::getAllById : vesselRepository::findAllByIdCached,
+                Vessel::getId);
+    }
+
+    public VesselBatchResult<String> getVesselsByImoNumbers(List<String> imoNumbers) {
+        return getVesselsBatch(imoNumbers,
+                useReadModel() ? vesselReadModel::getAllByImoNumber : vesselRepository::findByImoNumberIn,
+                Vessel::getImoNumber);
+    }
+
+    /**
+     * Resolves many keys with chunked IN queries instead of one lookup per key.
+     * Vessels are returned in request order (duplicates collapsed) and unknown keys
+     * are reported in {@code notFound} rather than raising VesselNotFoundException.
+     */
+    private <K> VesselBatchResult<K> getVesselsBatch(List<K> keys,
+                                                      Function<Collection<K>, List<Vessel>> loader,
+                                                      Function<Vessel, K> keyOf) {
+        if (keys == null || keys.isEmpty()) {
+            return new VesselBatchResult<>();
+        }
+        Set<K> uniqueKeys = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("Batch lookup keys must not be null");
+            }
+            uniqueKeys.add(key);
+        }
+        if (uniqueKeys.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch lookup is limited to " + MAX_BATCH_SIZE + " keys");
+        }
+
+        Map<K, Vessel> found = new HashMap<>();
+        List<K> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        for (K key : uniqueKeys) {
+            chunk.add(key);
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                loader.apply(chunk).forEach(vessel -> found.put(keyOf.apply(vessel), vessel));
+                chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            loader.apply(chunk).forEach(vessel -> found.put(keyOf.apply(vessel), vessel));
+        }
+
+        List<Vessel> vessels = new ArrayList<>(found.size());
+        List<K> notFound = new ArrayList<>();
+        for (K key : uniqueKeys) {
+            Vessel vessel = found.get(key);
+            if (vessel != null) {
+                vessels.add(vessel);
+            } else {
+                notFound.add(key);
+            }
+        }
+        return new VesselBatchResult<>(vessels, notFound);
     }
 
     @Transactional
@@ -37,9 +161,81 @@ public class VesselService {
         if (vesselRepository.findByImoNumber(vessel.getImoNumber()).isPresent()) {
             throw new IllegalArgumentException("Vessel with IMO number " + vessel.getImoNumber() + " already exists");
         }
-        return vesselRepository.save(vessel);
+        Vessel saved = vesselRepository.save(vessel);
+        vesselHistoryService.recordVersion(saved);
+        vesselChangeLog.recordChange(saved.getId(), saved.getImoNumber());
+        vesselPositionService.vesselChanged(saved);
+        return saved;
+    }
+
+    public Vessel upsertVesselByImoNumber(String imoNumber, Vessel vessel) {
+        if (!imoNumber.equals(vessel.getImoNumber())) {
+            throw new IllegalArgumentException("IMO number in body " + vessel.getImoNumber() + " does not match path " + imoNumber);
+        }
+        upsertChunk(List.of(vessel));
+        // From the database: when this MERGE changed nothing, the concurrent upsert that did may
+        // not have refreshed the read model yet
+        return vesselRepository.findByImoNumber(imoNumber)
+                .orElseThrow(() -> new VesselNotFoundException("Vessel not found with IMO number: " + imoNumber));
+    }
+
+    /**
+     * Upserts vessels by IMO number in chunks of {@link #UPSERT_CHUNK_SIZE}, one MERGE statement
+     * and transaction per chunk. A later entry for the same IMO number wins.
+     *
+     * @return the number of vessels inserted or changed
+     */
+    public int upsertVessels(List<Vessel> vessels) {
+        if (vessels == null || vessels.isEmpty()) {
+            return 0;
+        }
+        if (vessels.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch upsert is limited to " + MAX_BATCH_SIZE + " vessels");
+        }
+        Map<String, Vessel> byImoNumber = new LinkedHashMap<>();
+        for (Vessel vessel : vessels) {
+            byImoNumber.put(vessel.getImoNumber(), vessel);
+        }
+
+        int affected = 0;
+        List<Vessel> unique = new ArrayList<>(byImoNumber.values());
+        for (int from = 0; from < unique.size(); from += UPSERT_CHUNK_SIZE) {
+            affected += upsertChunk(unique.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, unique.size())));
+        }
+        return affected;
+    }
+
+    // Two concurrent MERGEs of a new IMO number can both take the insert branch; the loser
+    // hits the unique constraint and succeeds on retry through the update branch.
+    private int upsertChunk(List<Vessel> chunk) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<String> imoNumbers = chunk.stream().map(Vessel::getImoNumber).toList();
+                // Truncated to the column precision so the history copy can match rows by updated_at
+                LocalDateTime modifiedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+                int affected = transactionTemplate.execute(status -> {
+                    int changed = vesselRepository.upsertByImoNumber(chunk, modifiedAt);
+                    if (changed > 0) {
+                        vesselHistoryService.recordUpsertedVersions(imoNumbers, modifiedAt);
+                        // MERGE doesn't report which rows changed; peers resolve the IMO numbers and evict those
+                        vesselChangeLog.recordChanges(imoNumbers);
+                    }
+                    return changed;
+                });
+                if (affected > 0) {
+                    vesselReadModelService.refreshVesselsByImoNumbers(imoNumbers);
+                    vesselPositionService.refreshVesselsByImoNumbers(imoNumbers);
+                }
+                return affected;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= UPSERT_MAX_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
     }
 
+    @Transactional
     public Vessel updateVessel(Long id, Vessel vesselDetails) {
         Vessel vessel = getVesselById(id);
 
@@ -62,37 +258,69 @@ public class VesselService {
         vessel.setNextPortOfCall(vesselDetails.getNextPortOfCall());
         vessel.setEstimatedArrival(vesselDetails.getEstimatedArrival());
 
-        return vesselRepository.save(vessel);
+        // Flushed so @PreUpdate has set the updatedAt the version is recorded under
+        Vessel saved = vesselRepository.saveAndFlush(vessel);
+        vesselHistoryService.recordVersion(saved);
+        vesselChangeLog.recordChange(id, saved.getImoNumber());
+        vesselPositionService.vesselChanged(saved);
+        vesselJsonCache.evict(id);
+        return saved;
     }
 
+    @Transactional
     public void deleteVessel(Long id) {
         Vessel vessel = getVesselById(id);
         vesselRepository.delete(vessel);
+        vesselHistoryService.recordDeletion(vessel);
+        vesselChangeLog.recordChange(id, vessel.getImoNumber());
+        vesselPositionService.vesselDeleted(id);
+        vesselJsonCache.evict(id);
     }
 
     public List<Vessel> getVesselsByType(VesselType type) {
-        return vesselRepository.findByType(type);
+        return useReadModel() ? vesselReadModel.findByType(type) : vesselRepository.findByType(type);
     }
 
     public List<Vessel> getVesselsByStatus(VesselStatus status) {
-        return vesselRepository.findByStatus(status);
+        return useReadModel() ? vesselReadModel.findByStatus(status) : vesselRepository.findByStatus(status);
     }
 
     public List<Vessel> getVesselsByFlagState(String flagState) {
-        return vesselRepository.findByFlagState(flagState);
+        return useReadModel() ? vesselReadModel.findByFlagState(flagState) : vesselRepository.findByFlagState(flagState);
     }
 
     public List<Vessel> searchVesselsByName(String name) {
-        return vesselRepository.findByNameContaining(name);
+        return useReadModel() ? vesselReadModel.searchByName(name) : vesselRepository.findByNameContaining(name);
+    }
+
+    public List<Vessel> searchVesselsByName(String name, boolean includeArchived) {
+        List<Vessel> vessels = searchVesselsByName(name);
+        if (!includeArchived) {
+            return vessels;
+        }
+        List<Vessel> all = new ArrayList<>(vessels);
+        archivedVesselRepository.findByNameContaining(name).forEach(archived -> all.add(archived.toVessel()));
+        return all;
     }
 
     public Long getVesselCountByType(VesselType type) {
-        return vesselRepository.countByType(type);
+        return useReadModel() ? vesselReadModel.countByType(type) : vesselRepository.countByType(type);
     }
 
+    @Transactional
     public Vessel updateVesselStatus(Long id, VesselStatus status) {
         Vessel vessel = getVesselById(id);
         vessel.setStatus(status);
-        return vesselRepository.save(vessel);
+        Vessel saved = vesselRepository.saveAndFlush(vessel);
+        vesselHistoryService.recordVersion(saved);
+        vesselChangeLog.recordChange(id, saved.getImoNumber());
+        vesselPositionService.vesselChanged(saved);
+        vesselJsonCache.evict(id);
+        return saved;
+    }
+
+    private boolean useReadModel() {
+        return vesselReadModel.isLoaded() && !(TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,293 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of vessel positions on a uniform latitude/longitude grid. Every vessel maps to
+ * one immutable {@link TrackedVessel}; an update swaps that snapshot under the vessel's map entry
+ * and moves it between cells, so queries scan cells without locking. A snapshot is only reported
+ * while it is still the vessel's current one, which filters out the brief overlap of a move.
+ */
+@Component
+public class VesselSpatialIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final AtomicReferenceArray<ConcurrentHashMap<Long, TrackedVessel>> cells;
+    private final ConcurrentHashMap<Long, TrackedVessel> vessels = new ConcurrentHashMap<>();
+
+    public VesselSpatialIndex(@Value("${vessels.positions.cell-degrees:1.0}") double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("Grid cell size must be between 0 and 90 degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+        this.cells = new AtomicReferenceArray<>(rows * columns);
+    }
+
+    public void putAttributes(Long vesselId, String name, String imoNumber, VesselType type, VesselStatus status) {
+        vessels.compute(vesselId, (id, current) -> {
+            TrackedVessel updated = current == null
+                    ? new TrackedVessel(id, name, imoNumber, type, status, null, null, null, null, null)
+                    : current.withAttributes(name, imoNumber, type, status);
+            relocate(current, updated);
+            return updated;
+        });
+    }
+
+    /**
+     * Records a position report for a known vessel. Reports not newer than the current one are
+     * ignored, so out-of-order and replayed reports cannot move a vessel backwards.
+     *
+     * @return false if the vessel is not tracked
+     */
+    public boolean updatePosition(Long vesselId, double latitude, double longitude, Double course, Double speed,
+                                  LocalDateTime reportedAt) {
+        TrackedVessel result = vessels.computeIfPresent(vesselId, (id, current) -> {
+            if (current.reportedAt() != null && !reportedAt.isAfter(current.reportedAt())) {
+                return current;
+            }
+            TrackedVessel updated = current.withPosition(latitude, longitude, course, speed, reportedAt);
+            relocate(current, updated);
+            return updated;
+        });
+        return result != null;
+    }
+
+    public void remove(Long vesselId) {
+        vessels.computeIfPresent(vesselId, (id, current) -> {
+            relocate(current, null);
+            return null;
+        });
+    }
+
+    public void clear() {
+        for (Long vesselId : vessels.keySet()) {
+            remove(vesselId);
+        }
+    }
+
+    public Optional<TrackedVessel> get(Long vesselId) {
+        return Optional.ofNullable(vessels.get(vesselId));
+    }
+
+    public boolean contains(Long vesselId) {
+        return vessels.containsKey(vesselId);
+    }
+
+    public int size() {
+        return vessels.size();
+    }
+
+    /**
+     * Vessels inside the box, in no particular order. A box with {@code minLongitude} greater than
+     * {@code maxLongitude} crosses the antimeridian.
+     */
+    public List<TrackedVessel> withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                         Predicate<TrackedVessel> filter, int limit) {
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("Minimum latitude must not exceed maximum latitude");
+        }
+        boolean wraps = minLongitude > maxLongitude;
+        List<TrackedVessel> result = new ArrayList<>();
+        for (int row = row(minLatitude); row <= row(maxLatitude); row++) {
+            int firstColumn = column(minLongitude);
+            int lastColumn = wraps ? column(maxLongitude) + columns : column(maxLongitude);
+            // A wrapping box with both ends in one column would otherwise visit that column twice
+            lastColumn = Math.min(lastColumn, firstColumn + columns - 1);
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                ConcurrentHashMap<Long, TrackedVessel> cell = cells.get(row * columns + c % columns);
+                if (cell == null) {
+                    continue;
+                }
+                for (TrackedVessel vessel : cell.values()) {
+                    double longitude = vessel.longitude();
+                    boolean inLongitude = wraps
+                            ? longitude >= minLongitude || longitude <= maxLongitude
+                            : longitude >= minLongitude && longitude <= maxLongitude;
+                    if (inLongitude && vessel.latitude() >= minLatitude && vessel.latitude() <= maxLatitude
+                            && isCurrent(vessel) && filter.test(vessel)) {
+                        result.add(vessel);
+                        if (result.size() >= limit) {
+                            return result;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Vessels within {@code radiusKm} great-circle distance, nearest first.
+     */
+    public List<NearbyVessel> withinRadius(double latitude, double longitude, double radiusKm,
+                                           Predicate<TrackedVessel> filter, int limit) {
+        if (radiusKm < 0) {
+            throw new IllegalArgumentException("Radius must not be negative");
+        }
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeDelta);
+        double maxLatitude = Math.min(90, latitude + latitudeDelta);
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        // Widest longitude span of a spherical cap; it covers every longitude once it reaches a pole
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        if (maxLatitude < 90 && minLatitude > -90 && angular < Math.PI / 2) {
+            double longitudeDelta = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(latitude))));
+            if (longitudeDelta < 180) {
+                minLongitude = normalizeLongitude(longitude - longitudeDelta);
+                maxLongitude = normalizeLongitude(longitude + longitudeDelta);
+            }
+        }
+
+        List<NearbyVessel> result = new ArrayList<>();
+        for (TrackedVessel vessel : withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, filter, Integer.MAX_VALUE)) {
+            double distance = distanceKm(latitude, longitude, vessel.latitude(), vessel.longitude());
+            if (distance <= radiusKm) {
+                result.add(new NearbyVessel(vessel, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(NearbyVessel::distanceKm));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * The {@code k} vessels nearest to a point, nearest first. Scans rings of cells outwards and
+     * stops once no cell outside the scanned block can hold anything closer than the k-th match.
+     */
+    public List<NearbyVessel> nearest(double latitude, double longitude, int k, Predicate<TrackedVessel> filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<NearbyVessel> best = new PriorityQueue<>(
+                Comparator.comparingDouble(NearbyVessel::distanceKm).reversed());
+        BitSet visited = new BitSet(rows * columns);
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+
+        for (int ring = 0; ; ring++) {
+            for (int row = Math.max(0, centerRow - ring); row <= Math.min(rows - 1, centerRow + ring); row++) {
+                boolean edgeRow = Math.abs(row - centerRow) == ring;
+                for (int dc = -ring; dc <= ring; dc += edgeRow ? 1 : 2 * Math.max(ring, 1)) {
+                    int index = row * columns + Math.floorMod(centerColumn + dc, columns);
+                    if (visited.get(index)) {
+                        continue;
+                    }
+                    visited.set(index);
+                    ConcurrentHashMap<Long, TrackedVessel> cell = cells.get(index);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (TrackedVessel vessel : cell.values()) {
+                        if (!isCurrent(vessel) || !filter.test(vessel)) {
+                            continue;
+                        }
+                        double distance = distanceKm(latitude, longitude, vessel.latitude(), vessel.longitude());
+                        if (best.size() < k) {
+                            best.add(new NearbyVessel(vessel, distance));
+                        } else if (distance < best.peek().distanceKm()) {
+                            best.poll();
+                            best.add(new NearbyVessel(vessel, distance));
+                        }
+                    }
+                }
+            }
+            boolean coversGrid = centerRow - ring <= 0 && centerRow + ring >= rows - 1 && 2 * ring + 1 >= columns;
+            if (coversGrid || (best.size() == k && best.peek().distanceKm() <= distanceOutsideBlock(latitude, longitude, centerRow, centerColumn, ring))) {
+                break;
+            }
+        }
+        List<NearbyVessel> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyVessel::distanceKm));
+        return result;
+    }
+
+    // Lower bound on the distance from the point to any cell outside the (2 ring + 1)^2 block around it
+    private double distanceOutsideBlock(double latitude, double longitude, int centerRow, int centerColumn, int ring) {
+        double bound = Double.MAX_VALUE;
+        if (centerRow - ring > 0) {
+            double southEdge = -90 + (centerRow - ring) * cellDegrees;
+            bound = Math.min(bound, (latitude - southEdge) * KM_PER_DEGREE);
+        }
+        if (centerRow + ring < rows - 1) {
+            double northEdge = -90 + (centerRow + ring + 1) * cellDegrees;
+            bound = Math.min(bound, (northEdge - latitude) * KM_PER_DEGREE);
+        }
+        if (2 * ring + 1 < columns) {
+            double westGap = longitude - (-180 + (centerColumn - ring) * cellDegrees);
+            double eastGap = (-180 + (centerColumn + ring + 1) * cellDegrees) - longitude;
+            double gap = Math.toRadians(Math.min(90, Math.min(westGap, eastGap)));
+            // Distance from the point to the nearest boundary meridian
+            bound = Math.min(bound, EARTH_RADIUS_KM * Math.asin(Math.sin(gap) * Math.cos(Math.toRadians(latitude))));
+        }
+        return bound;
+    }
+
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private boolean isCurrent(TrackedVessel vessel) {
+        return vessels.get(vessel.vesselId()) == vessel;
+    }
+
+    // Adds the new snapshot before dropping the old one, so a moving vessel is never absent from every cell
+    private void relocate(TrackedVessel current, TrackedVessel updated) {
+        if (updated != null && updated.hasPosition()) {
+            cell(cellIndex(updated.latitude(), updated.longitude())).put(updated.vesselId(), updated);
+        }
+        if (current != null && current.hasPosition()) {
+            ConcurrentHashMap<Long, TrackedVessel> cell = cells.get(cellIndex(current.latitude(), current.longitude()));
+            if (cell != null) {
+                cell.remove(current.vesselId(), current);
+            }
+        }
+    }
+
+    private ConcurrentHashMap<Long, TrackedVessel> cell(int index) {
+        ConcurrentHashMap<Long, TrackedVessel> cell = cells.get(index);
+        if (cell == null) {
+            cells.compareAndSet(index, null, new ConcurrentHashMap<>());
+            cell = cells.get(index);
+        }
+        return cell;
+    }
+
+    private int cellIndex(double latitude, double longitude) {
+        return row(latitude) * columns + column(longitude);
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int column(double longitude) {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor((longitude + 180) / cellDegrees)));
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return ((longitude + 180) % 360 + 360) % 360 - 180;
+    }
+}
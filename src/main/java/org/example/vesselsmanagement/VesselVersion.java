@@ -0,0 +1,132 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An immutable snapshot of a vessel, valid from {@code validFrom} until the next version of the
+ * same vessel. Deletions are recorded as a final version with {@code deleted} set.
+ */
+@Entity
+@Table(name = "vessel_versions", indexes = {
+        @Index(name = "idx_vessel_versions_vessel_time", columnList = "vessel_id, valid_from"),
+        @Index(name = "idx_vessel_versions_time", columnList = "valid_from, vessel_id"),
+        @Index(name = "idx_vessel_versions_imo_time", columnList = "imo_number, valid_from")
+})
+public class VesselVersion {
+    // Pooled sequence ids, so versions are inserted in JDBC batches at flush instead of one by one
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vessel_versions_seq")
+    @SequenceGenerator(name = "vessel_versions_seq", sequenceName = "vessel_versions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "vessel_id", nullable = false)
+    private Long vesselId;
+
+    @Column(name = "valid_from", nullable = false)
+    private LocalDateTime validFrom;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "imo_number", nullable = false, length = 10)
+    private String imoNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private VesselType type;
+
+    @Column(name = "flag_state", nullable = false, length = 50)
+    private String flagState;
+
+    @Column(name = "year_built")
+    private Integer yearBuilt;
+
+    @Column(name = "length_meters")
+    private Double lengthMeters;
+
+    @Column(name = "gross_tonnage")
+    private Double grossTonnage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private VesselStatus status;
+
+    @Column(name = "last_port_of_call", length = 100)
+    private String lastPortOfCall;
+
+    @Column(name = "next_port_of_call", length = 100)
+    private String nextPortOfCall;
+
+    @Column(name = "estimated_arrival")
+    private LocalDateTime estimatedArrival;
+
+    // Constructors
+    public VesselVersion() {}
+
+    public VesselVersion(Vessel vessel, LocalDateTime validFrom, boolean deleted) {
+        this.vesselId = vessel.getId();
+        this.validFrom = validFrom;
+        this.deleted = deleted;
+        this.name = vessel.getName();
+        this.imoNumber = vessel.getImoNumber();
+        this.type = vessel.getType();
+        this.flagState = vessel.getFlagState();
+        this.yearBuilt = vessel.getYearBuilt();
+        this.lengthMeters = vessel.getLengthMeters();
+        this.grossTonnage = vessel.getGrossTonnage();
+        this.status = vessel.getStatus();
+        this.lastPortOfCall = vessel.getLastPortOfCall();
+        this.nextPortOfCall = vessel.getNextPortOfCall();
+        this.estimatedArrival = vessel.getEstimatedArrival();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getVesselId() { return vesselId; }
+    public void setVesselId(Long vesselId) { this.vesselId = vesselId; }
+
+    public LocalDateTime getValidFrom() { return validFrom; }
+    public void setValidFrom(LocalDateTime validFrom) { this.validFrom = validFrom; }
+
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getImoNumber() { return imoNumber; }
+    public void setImoNumber(String imoNumber) { this.imoNumber = imoNumber; }
+
+    public VesselType getType() { return type; }
+    public void setType(VesselType type) { this.type = type; }
+
+    public String getFlagState() { return flagState; }
+    public void setFlagState(String flagState) { this.flagState = flagState; }
+
+    public Integer getYearBuilt() { return yearBuilt; }
+    public void setYearBuilt(Integer yearBuilt) { this.yearBuilt = yearBuilt; }
+
+    public Double getLengthMeters() { return lengthMeters; }
+    public void setLengthMeters(Double lengthMeters) { this.lengthMeters = lengthMeters; }
+
+    public Double getGrossTonnage() { return grossTonnage; }
+    public void setGrossTonnage(Double grossTonnage) { this.grossTonnage = grossTonnage; }
+
+    public VesselStatus getStatus() { return status; }
+    public void setStatus(VesselStatus status) { this.status = status; }
+
+    public String getLastPortOfCall() { return lastPortOfCall; }
+    public void setLastPortOfCall(String lastPortOfCall) { this.lastPortOfCall = lastPortOfCall; }
+
+    public String getNextPortOfCall() { return nextPortOfCall; }
+    public void setNextPortOfCall(String nextPortOfCall) { this.nextPortOfCall = nextPortOfCall; }
+
+    public LocalDateTime getEstimatedArrival() { return estimatedArrival; }
+    public void setEstimatedArrival(LocalDateTime estimatedArrival) { this.estimatedArrival = estimatedArrival; }
+}
@@ -0,0 +1,36 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One row per vessel present at {@code checkpointAt}, naming the version then in effect. A fleet
+ * read as of a later time starts from these instead of every version recorded before them.
+ */
+@Entity
+@Table(name = "vessel_version_checkpoints", indexes = @Index(name = "idx_vessel_version_checkpoints_time",
+        columnList = "checkpoint_at, version_id"))
+public class VesselVersionCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "checkpoint_at", nullable = false)
+    private LocalDateTime checkpointAt;
+
+    @Column(name = "version_id", nullable = false)
+    private Long versionId;
+
+    // Constructors
+    public VesselVersionCheckpoint() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDateTime getCheckpointAt() { return checkpointAt; }
+    public void setCheckpointAt(LocalDateTime checkpointAt) { this.checkpointAt = checkpointAt; }
+
+    public Long getVersionId() { return versionId; }
+    public void setVersionId(Long versionId) { this.versionId = versionId; }
+}
@@ -0,0 +1,20 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface VesselVersionCheckpointRepository extends JpaRepository<VesselVersionCheckpoint, Long> {
+
+    @Query("SELECT MAX(c.checkpointAt) FROM VesselVersionCheckpoint c WHERE c.checkpointAt <= :at")
+    Optional<LocalDateTime> findLatestCheckpointAt(@Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("DELETE FROM VesselVersionCheckpoint c WHERE c.checkpointAt >= :from")
+    int deleteCheckpointsFrom(@Param("from") LocalDateTime from);
+}
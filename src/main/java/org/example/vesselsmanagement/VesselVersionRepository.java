@@ -0,0 +1,47 @@
+package org.example.vesselsmanagement;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VesselVersionRepository extends JpaRepository<VesselVersion, Long> {
+
+    Optional<VesselVersion> findFirstByVesselIdAndValidFromLessThanEqualOrderByValidFromDescIdDesc(Long vesselId, LocalDateTime at);
+
+    Optional<VesselVersion> findFirstByImoNumberAndValidFromLessThanEqualOrderByValidFromDescIdDesc(String imoNumber, LocalDateTime at);
+
+    List<VesselVersion> findByVesselIdAndValidFromGreaterThanAndValidFromLessThanEqualOrderByValidFromAscIdAsc(
+            Long vesselId, LocalDateTime after, LocalDateTime to);
+
+    // The version in effect for each vessel is the one no later version (up to :at) supersedes;
+    // the NOT EXISTS probe is an index seek on (vessel_id, valid_from)
+    @Query(value = "SELECT v FROM VesselVersion v WHERE v.validFrom <= :at AND v.deleted = false "
+            + "AND NOT EXISTS (SELECT n.id FROM VesselVersion n WHERE n.vesselId = v.vesselId AND n.validFrom <= :at "
+            + "AND (n.validFrom > v.validFrom OR (n.validFrom = v.validFrom AND n.id > v.id)))",
+            countQuery = "SELECT COUNT(v) FROM VesselVersion v WHERE v.validFrom <= :at AND v.deleted = false "
+            + "AND NOT EXISTS (SELECT n.id FROM VesselVersion n WHERE n.vesselId = v.vesselId AND n.validFrom <= :at "
+            + "AND (n.validFrom > v.validFrom OR (n.validFrom = v.validFrom AND n.id > v.id)))")
+    Page<VesselVersion> findFleetAsOf(@Param("at") LocalDateTime at, Pageable pageable);
+
+    // As above, but only the versions a checkpoint names and those recorded after it are candidates,
+    // a range on (valid_from, vessel_id) instead of all history up to :at
+    @Query(value = "SELECT v FROM VesselVersion v WHERE v.validFrom <= :at AND v.deleted = false "
+            + "AND (v.validFrom > :checkpointAt OR v.id IN "
+            + "(SELECT c.versionId FROM VesselVersionCheckpoint c WHERE c.checkpointAt = :checkpointAt)) "
+            + "AND NOT EXISTS (SELECT n.id FROM VesselVersion n WHERE n.vesselId = v.vesselId AND n.validFrom <= :at "
+            + "AND (n.validFrom > v.validFrom OR (n.validFrom = v.validFrom AND n.id > v.id)))",
+            countQuery = "SELECT COUNT(v) FROM VesselVersion v WHERE v.validFrom <= :at AND v.deleted = false "
+            + "AND (v.validFrom > :checkpointAt OR v.id IN "
+            + "(SELECT c.versionId FROM VesselVersionCheckpoint c WHERE c.checkpointAt = :checkpointAt)) "
+            + "AND NOT EXISTS (SELECT n.id FROM VesselVersion n WHERE n.vesselId = v.vesselId AND n.validFrom <= :at "
+            + "AND (n.validFrom > v.validFrom OR (n.validFrom = v.validFrom AND n.id > v.id)))")
+    Page<VesselVersion> findFleetAsOfFromCheckpoint(@Param("at") LocalDateTime at,
+                                                    @Param("checkpointAt") LocalDateTime checkpointAt, Pageable pageable);
+}
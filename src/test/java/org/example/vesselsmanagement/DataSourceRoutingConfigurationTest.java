@@ -0,0 +1,38 @@
+package org.example.vesselsmanagement;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceRoutingConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(DataSourceRoutingConfiguration.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:routing-config-test",
+                    "spring.datasource.hikari.maximum-pool-size=7",
+                    "spring.datasource.hikari.pool-name=vessels-primary");
+
+    @Test
+    void dataSource_ShouldApplyHikariProperties() {
+        contextRunner.run(context -> {
+            HikariDataSource dataSource = (HikariDataSource) context.getBean(DataSource.class);
+            assertThat(dataSource.getMaximumPoolSize()).isEqualTo(7);
+            assertThat(dataSource.getPoolName()).isEqualTo("vessels-primary");
+        });
+    }
+
+    @Test
+    void dataSource_WithReplicas_ShouldApplyHikariPropertiesToPrimary() {
+        contextRunner.withPropertyValues("vessels.datasource.replicas[0].url=jdbc:h2:mem:routing-config-replica")
+                .run(context -> {
+                    assertThat(context.getBean(DataSource.class)).isInstanceOf(ReadWriteRoutingDataSource.class);
+                    assertThat(context.getBean("primaryDataSource", HikariDataSource.class).getMaximumPoolSize()).isEqualTo(7);
+                });
+    }
+}
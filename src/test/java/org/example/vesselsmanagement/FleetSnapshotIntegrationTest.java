@@ -0,0 +1,239 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class FleetSnapshotIntegrationTest {
+
+    @Autowired
+    private FleetSnapshotService fleetSnapshotService;
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private VesselPositionService vesselPositionService;
+
+    @Autowired
+    private VesselSpatialIndex vesselSpatialIndex;
+
+    @Autowired
+    private VesselHistoryService vesselHistoryService;
+
+    @Autowired
+    private VesselArchiveService vesselArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    private Vessel detailed;
+
+    private Vessel sparse;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+
+        Vessel vessel = new Vessel("Skipsreder Ærø – 海运", "IMO4123456", VesselType.CONTAINER_SHIP, "Norway");
+        vessel.setYearBuilt(2015);
+        vessel.setLengthMeters(366.0);
+        vessel.setGrossTonnage(141077.0);
+        vessel.setStatus(VesselStatus.AT_SEA);
+        vessel.setLastPortOfCall("Rotterdam");
+        vessel.setNextPortOfCall("Singapore");
+        vessel.setEstimatedArrival(LocalDateTime.of(2024, 3, 3, 6, 30, 15, 123456000));
+        detailed = vesselService.createVessel(vessel);
+        sparse = vesselService.createVessel(new Vessel("Sparse Vessel", "IMO4234567", VesselType.TUGBOAT, "Norway"));
+    }
+
+    @Test
+    void exportThenRestore_ShouldReproduceFleetWithSameIds() {
+        LocalDateTime storedCreatedAt = vesselRepository.findById(detailed.getId()).orElseThrow().getCreatedAt();
+        Path snapshot = tempDir.resolve("fleet.snap");
+        FleetSnapshotInfo exported = fleetSnapshotService.exportSnapshot(snapshot);
+        assertThat(exported.getVesselCount()).isEqualTo(2);
+
+        vesselService.deleteVessel(sparse.getId());
+        vesselService.updateVesselStatus(detailed.getId(), VesselStatus.DETAINED);
+        Vessel dropped = vesselService.createVessel(new Vessel("Not In Snapshot", "IMO4345678", VesselType.FERRY, "Malta"));
+
+        FleetSnapshotInfo restored = fleetSnapshotService.restoreSnapshot(snapshot);
+
+        assertThat(restored.getVesselCount()).isEqualTo(2);
+        List<Vessel> vessels = vesselRepository.findAll();
+        assertThat(vessels).extracting(Vessel::getImoNumber).containsExactlyInAnyOrder("IMO4123456", "IMO4234567");
+        Vessel restoredDetailed = vesselService.getVesselById(detailed.getId());
+        assertThat(restoredDetailed.getName()).isEqualTo("Skipsreder Ærø – 海运");
+        assertThat(restoredDetailed.getStatus()).isEqualTo(VesselStatus.AT_SEA);
+        assertThat(restoredDetailed.getLengthMeters()).isEqualTo(366.0);
+        assertThat(restoredDetailed.getNextPortOfCall()).isEqualTo("Singapore");
+        assertThat(restoredDetailed.getEstimatedArrival()).isEqualTo(LocalDateTime.of(2024, 3, 3, 6, 30, 15, 123456000));
+        assertThat(restoredDetailed.getCreatedAt()).isEqualTo(storedCreatedAt);
+        Vessel restoredSparse = vesselService.getVesselById(sparse.getId());
+        assertThat(restoredSparse.getYearBuilt()).isNull();
+        assertThat(restoredSparse.getGrossTonnage()).isNull();
+        assertThat(restoredSparse.getEstimatedArrival()).isNull();
+        assertThat(vesselSpatialIndex.contains(sparse.getId())).isTrue();
+
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(vesselHistoryService.getVesselAsOf(detailed.getId(), now).getStatus()).isEqualTo(VesselStatus.AT_SEA);
+        assertThat(vesselHistoryService.getVesselAsOf(sparse.getId(), now).getName()).isEqualTo("Sparse Vessel");
+        assertThatThrownBy(() -> vesselHistoryService.getVesselAsOf(dropped.getId(), now))
+                .isInstanceOf(VesselNotFoundException.class);
+
+        Vessel created = vesselService.createVessel(new Vessel("After Restore", "IMO4456789", VesselType.FERRY, "Malta"));
+        assertThat(created.getId()).isGreaterThan(Math.max(detailed.getId(), sparse.getId()));
+    }
+
+    @Test
+    void restore_ThenCreate_ShouldNotReuseIdsOfVesselsCreatedAfterExport() {
+        Path snapshot = tempDir.resolve("fleet.snap");
+        fleetSnapshotService.exportSnapshot(snapshot);
+        Vessel dropped = vesselService.createVessel(new Vessel("Dropped By Restore", "IMO4345678", VesselType.FERRY, "Malta"));
+        Vessel scrapped = vesselService.createVessel(new Vessel("Archived Later", "IMO4567890", VesselType.TANKER, "Malta"));
+        vesselService.updateVesselStatus(scrapped.getId(), VesselStatus.DECOMMISSIONED);
+        assertThat(vesselArchiveService.archiveDecommissionedBefore(LocalDateTime.now().plusSeconds(1)).getArchived()).isEqualTo(1);
+
+        fleetSnapshotService.restoreSnapshot(snapshot);
+        Vessel created = vesselService.createVessel(new Vessel("After Restore", "IMO4456789", VesselType.FERRY, "Malta"));
+
+        assertThat(created.getId()).isGreaterThan(Math.max(dropped.getId(), scrapped.getId()));
+        assertThat(vesselHistoryService.getVesselHistory(created.getId(), LocalDateTime.now().minusHours(1), LocalDateTime.now()))
+                .extracting(VesselVersion::getName)
+                .containsExactly("After Restore");
+    }
+
+    @Test
+    void restore_WhenVesselsSwappedImoNumbers_ShouldSwapThemBack() {
+        Path snapshot = tempDir.resolve("fleet.snap");
+        fleetSnapshotService.exportSnapshot(snapshot);
+        jdbcTemplate.update("UPDATE vessels SET imo_number = CASE WHEN id = ? THEN 'IMO4234567' ELSE 'IMO4123456' END",
+                detailed.getId());
+
+        fleetSnapshotService.restoreSnapshot(snapshot);
+
+        assertThat(vesselService.getVesselById(detailed.getId()).getImoNumber()).isEqualTo("IMO4123456");
+        assertThat(vesselService.getVesselById(sparse.getId()).getImoNumber()).isEqualTo("IMO4234567");
+    }
+
+    @Test
+    void restore_ShouldKeepWorkPerTransactionBoundedAsFleetGrows() {
+        FleetSnapshotService target = AopTestUtils.getTargetObject(fleetSnapshotService);
+        ReflectionTestUtils.setField(target, "chunkSize", 100);
+        try {
+            List<FleetSnapshotInfo> restores = new ArrayList<>();
+            for (int fleetSize : new int[]{300, 3000}) {
+                vesselRepository.deleteAll();
+                List<Object[]> rows = new ArrayList<>();
+                for (int i = 0; i < fleetSize; i++) {
+                    rows.add(new Object[]{"Bulk Vessel " + i, String.format("IMO%07d", 5_000_000 + i)});
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO vessels (name, imo_number, type, flag_state, status, created_at, "
+                        + "updated_at) VALUES (?, ?, 'CARGO_SHIP', 'Panama', 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", rows);
+                Path snapshot = tempDir.resolve("fleet-" + fleetSize + ".snap");
+                fleetSnapshotService.exportSnapshot(snapshot);
+
+                restores.add(fleetSnapshotService.restoreSnapshot(snapshot));
+                assertThat(vesselRepository.count()).isEqualTo(fleetSize);
+            }
+
+            // Ten times the fleet takes ten times the transactions, each no larger than a chunk:
+            // staging, deleting and merging each walk the fleet once
+            assertThat(restores).extracting(FleetSnapshotInfo::getChunks).containsExactly(9, 90);
+            assertThat(restores).extracting(FleetSnapshotInfo::getLargestChunk).containsExactly(100, 100);
+        } finally {
+            ReflectionTestUtils.setField(target, "chunkSize", 1000);
+        }
+    }
+
+    @Test
+    void restore_WithCorruptFile_ShouldRejectAndKeepFleet() throws IOException {
+        Path snapshot = tempDir.resolve("fleet.snap");
+        fleetSnapshotService.exportSnapshot(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[0] = 'X';
+        Files.write(snapshot, bytes);
+
+        assertThatThrownBy(() -> fleetSnapshotService.restoreSnapshot(snapshot))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bad magic number");
+        assertThat(vesselRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void restore_WithTruncatedStringTable_ShouldRollBack() throws IOException {
+        Path snapshot = tempDir.resolve("fleet.snap");
+        fleetSnapshotService.exportSnapshot(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        // Point the first row's name at an offset past the end of the string table
+        java.nio.ByteBuffer.wrap(bytes).putInt(FleetSnapshotFormat.HEADER_SIZE + FleetSnapshotFormat.NAME, 1 << 20);
+        Files.write(snapshot, bytes);
+
+        assertThatThrownBy(() -> fleetSnapshotService.restoreSnapshot(snapshot))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("corrupt");
+        assertThat(vesselRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void restore_WithMissingRequiredString_ShouldRejectBeforeTouchingFleet() throws IOException {
+        Path snapshot = tempDir.resolve("fleet.snap");
+        fleetSnapshotService.exportSnapshot(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        java.nio.ByteBuffer.wrap(bytes).putInt(FleetSnapshotFormat.HEADER_SIZE + FleetSnapshotFormat.NAME,
+                FleetSnapshotFormat.NULL_REF);
+        Files.write(snapshot, bytes);
+        Vessel later = vesselService.createVessel(new Vessel("Not In Snapshot", "IMO4345678", VesselType.FERRY, "Malta"));
+
+        assertThatThrownBy(() -> fleetSnapshotService.restoreSnapshot(snapshot))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("corrupt");
+        assertThat(vesselRepository.findAll()).extracting(Vessel::getId)
+                .containsExactlyInAnyOrder(detailed.getId(), sparse.getId(), later.getId());
+    }
+
+    @Test
+    void listSnapshots_ShouldSkipPartialFiles() throws IOException {
+        FleetSnapshotService target = AopTestUtils.getTargetObject(fleetSnapshotService);
+        Path directory = (Path) ReflectionTestUtils.getField(target, "directory");
+        ReflectionTestUtils.setField(target, "directory", tempDir);
+        try {
+            fleetSnapshotService.exportSnapshot("fleet");
+            Files.copy(tempDir.resolve("fleet"), tempDir.resolve("upload.partial"));
+
+            assertThat(fleetSnapshotService.listSnapshots()).extracting(FleetSnapshotInfo::getName).containsExactly("fleet");
+            assertThatThrownBy(() -> fleetSnapshotService.restoreSnapshot("upload.partial"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            ReflectionTestUtils.setField(target, "directory", directory);
+        }
+    }
+
+    @Test
+    void exportSnapshot_WithInvalidName_ShouldReject() {
+        assertThatThrownBy(() -> fleetSnapshotService.exportSnapshot("../escape"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "vessels.reactive.enabled=true")
+class ReactiveVesselIntegrationTest {
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private ReactiveVesselServer reactiveVesselServer;
+
+    private WebTestClient webTestClient;
+
+    private Vessel savedVessel;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+
+        Vessel vessel = new Vessel("Reactive Test Vessel", "IMO2223334", VesselType.TANKER, "Panama");
+        vessel.setStatus(VesselStatus.AT_SEA);
+        savedVessel = vesselRepository.save(vessel);
+        vesselRepository.save(new Vessel("Second Reactive Vessel", "IMO4445556", VesselType.TANKER, "Malta"));
+
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveVesselServer.getPort())
+                .build();
+    }
+
+    @Test
+    void getVesselById_ShouldReturnVessel() {
+        webTestClient.get().uri("/api/vessels/{id}", savedVessel.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imoNumber").isEqualTo("IMO2223334")
+                .jsonPath("$.status").isEqualTo("AT_SEA");
+    }
+
+    @Test
+    void getVesselByImoNumber_WhenNotExists_ShouldReturnNotFound() {
+        webTestClient.get().uri("/api/vessels/imo/IMO9999999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Vessel not found with IMO number: IMO9999999");
+    }
+
+    @Test
+    void getVesselsByType_ShouldReturnJsonArray() {
+        webTestClient.get().uri("/api/vessels/type/TANKER")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Reactive Test Vessel");
+    }
+
+    @Test
+    void getAllVessels_WithNdjson_ShouldStreamOneVesselPerLine() {
+        List<Vessel> vessels = webTestClient.get().uri("/api/vessels?size=1&sortBy=imoNumber&sortDir=desc")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Vessel.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(vessels).extracting(Vessel::getImoNumber).containsExactly("IMO4445556");
+    }
+
+    @Test
+    void getAllVessels_WithUnknownSortField_ShouldReturnBadRequest() {
+        webTestClient.get().uri("/api/vessels?sortBy=secret")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getVesselCountByType_ShouldReturnCount() {
+        webTestClient.get().uri("/api/vessels/statistics/count-by-type/TANKER")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Long.class).isEqualTo(2L);
+    }
+
+    @Test
+    void r2dbcUrl_ShouldFollowDatasourceUrl() {
+        assertThat(ReactiveVesselConfiguration.r2dbcUrl("", "jdbc:h2:mem:vesselsdb;DB_CLOSE_DELAY=-1"))
+                .isEqualTo("r2dbc:h2:mem:///vesselsdb");
+        assertThat(ReactiveVesselConfiguration.r2dbcUrl(null, "jdbc:postgresql://db:5432/vessels"))
+                .isEqualTo("r2dbc:postgresql://db:5432/vessels");
+        assertThat(ReactiveVesselConfiguration.r2dbcUrl("r2dbc:pool:postgresql://db:5432/vessels?maxSize=5",
+                "jdbc:postgresql://db:5432/vessels")).isEqualTo("r2dbc:pool:postgresql://db:5432/vessels?maxSize=5");
+    }
+
+    @Test
+    void r2dbcUrl_WhenItNamesAnotherDatabase_ShouldFailStartup() {
+        assertThatThrownBy(() -> ReactiveVesselConfiguration.r2dbcUrl("r2dbc:h2:mem:///vesselsdb", "jdbc:h2:mem:otherdb"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ReactiveVesselConfiguration.r2dbcUrl("", "jdbc:oracle:thin:@db:1521/vessels"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
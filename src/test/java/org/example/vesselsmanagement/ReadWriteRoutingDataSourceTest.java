@@ -0,0 +1,133 @@
+package org.example.vesselsmanagement;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readTransaction;
+
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+        properties.setAssumedReplicaLag(Duration.ofMillis(200));
+        properties.setMaxReplicaLag(Duration.ofSeconds(30));
+        properties.setHealthCheckInterval(Duration.ofHours(1));
+
+        List<ReadWriteRoutingDataSource.Replica> replicas = List.of(
+                new ReadWriteRoutingDataSource.Replica("replica-0", h2("replica-0"), null, properties.getAssumedReplicaLag()),
+                new ReadWriteRoutingDataSource.Replica("replica-1", h2("replica-1"), null, properties.getAssumedReplicaLag()));
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replicas, properties);
+        routingDataSource.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routingDataSource);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        DataSourceRoutingContext.setClientId("client-a");
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataSourceRoutingContext.clear();
+        routingDataSource.destroy();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertTrue(readTransaction.execute(status -> whoAmI()).startsWith("replica-"));
+    }
+
+    @Test
+    void writeTransaction_ShouldUsePrimary() {
+        assertEquals("primary", writeTransaction.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void readAfterOwnWrite_ShouldUsePrimaryUntilReplicasCatchUp() throws Exception {
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET name = name"));
+
+        assertEquals("primary", readTransaction.execute(status -> whoAmI()));
+
+        DataSourceRoutingContext.setClientId("client-b");
+        assertTrue(readTransaction.execute(status -> whoAmI()).startsWith("replica-"));
+
+        DataSourceRoutingContext.setClientId("client-a");
+        Thread.sleep(300);
+        assertTrue(readTransaction.execute(status -> whoAmI()).startsWith("replica-"));
+    }
+
+    @Test
+    void replicaOverMaxLag_ShouldBeSkipped() {
+        routingDataSource.getReplicas().get(0).update(true, Duration.ofMinutes(5).toMillis());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-1", readTransaction.execute(status -> whoAmI()));
+        }
+    }
+
+    @Test
+    void allReplicasUnavailable_ShouldFallBackToPrimary() {
+        routingDataSource.getReplicas().forEach(replica -> replica.update(false, Long.MAX_VALUE));
+
+        assertEquals("primary", readTransaction.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void busyReplica_ShouldBeAvoided() throws Exception {
+        try (Connection held = routingDataSource.getReplicas().get(1).getDataSource().getConnection()) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals("replica-0", readTransaction.execute(status -> whoAmI()));
+            }
+        }
+    }
+
+    @Test
+    void checkReplicas_WhenLagQueryReportsLag_ShouldRecordIt() {
+        ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+        ReadWriteRoutingDataSource.Replica lagging =
+                new ReadWriteRoutingDataSource.Replica("replica-0", h2("lagging"), "SELECT 120", properties.getAssumedReplicaLag());
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(h2("other-primary"), List.of(lagging), properties);
+
+        dataSource.checkReplicas();
+
+        assertEquals(120_000, lagging.getLagMillis());
+        assertTrue(lagging.isHealthy());
+        dataSource.destroy();
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE marker (name VARCHAR(20))");
+        setup.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
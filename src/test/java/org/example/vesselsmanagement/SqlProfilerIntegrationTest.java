@@ -0,0 +1,128 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class SqlProfilerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    @Autowired
+    private SqlProfilerProperties properties;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    private Vessel vessel;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+        vessel = vesselService.createVessel(new Vessel("Profiled Vessel", "IMO5123456", VesselType.BULK_CARRIER, "Malta"));
+        sqlProfiler.reset();
+        sqlProfiler.setEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlProfiler.setEnabled(false);
+        sqlProfiler.reset();
+        properties.setSlowQueryThreshold(Duration.ofMillis(100));
+    }
+
+    @Test
+    void request_ShouldBeProfiledPerMappingAndServiceMethod() throws Exception {
+        mockMvc.perform(patch("/api/vessels/{id}/status", vessel.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("\"IN_PORT\""))
+                .andExpect(status().isOk());
+
+        SqlProfilerReport report = sqlProfiler.getReport(20);
+        SqlProfileStatistics request = report.getRequests().get("PATCH /api/vessels/{id}/status");
+        assertThat(request.getInvocations()).isEqualTo(1);
+        assertThat(request.getStatements()).isGreaterThan(0);
+        SqlProfileStatistics method = report.getMethods().get("VesselService.updateVesselStatus");
+        assertThat(method.getInvocations()).isEqualTo(1);
+        assertThat(method.getStatements()).isEqualTo(request.getStatements());
+        assertThat(report.getStatements()).anyMatch(statement -> statement.getSql().startsWith("update vessels"));
+
+        mockMvc.perform(get("/api/profiler"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.requests['PATCH /api/vessels/{id}/status'].invocations").value(1));
+    }
+
+    @Test
+    void repeatedStatement_ShouldBeFlaggedAsLikelyNPlusOne(CapturedOutput output) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        sqlProfiler.beginRequest();
+        for (int i = 0; i < properties.getRepeatedStatementThreshold(); i++) {
+            jdbcTemplate.queryForObject("SELECT name FROM vessels WHERE id = ?", String.class, vessel.getId());
+        }
+        sqlProfiler.endRequest("GET /test");
+
+        SqlProfileStatistics request = sqlProfiler.getReport(20).getRequests().get("GET /test");
+        assertThat(request.getStatements()).isEqualTo(properties.getRepeatedStatementThreshold());
+        assertThat(request.getRepeatedStatements()).isEqualTo(1);
+        assertThat(output).contains("likely an N+1: SELECT name FROM vessels WHERE id = ?");
+    }
+
+    @Test
+    void slowQuery_ShouldBeLoggedWithParametersAndPlan(CapturedOutput output) {
+        properties.setSlowQueryThreshold(Duration.ZERO);
+
+        new JdbcTemplate(dataSource).queryForObject("SELECT name FROM vessels WHERE imo_number = ?", String.class, "IMO5123456");
+
+        assertThat(output).contains("Slow SQL").contains("parameters: [1='IMO5123456']").contains("plan:");
+        assertThat(sqlProfiler.getReport(20).getStatements())
+                .filteredOn(statement -> statement.getSql().equals("SELECT name FROM vessels WHERE imo_number = ?"))
+                .singleElement()
+                .satisfies(statement -> assertThat(statement.getSlowExecutions()).isEqualTo(1));
+    }
+
+    @Test
+    void disabledProfiler_ShouldHandOutPlainConnectionsAndRecordNothing() throws Exception {
+        mockMvc.perform(put("/api/profiler").param("enabled", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(false));
+        sqlProfiler.reset();
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(Proxy.isProxyClass(connection.getClass())).isFalse();
+        }
+        mockMvc.perform(get("/api/vessels/{id}", vessel.getId())).andExpect(status().isOk());
+        assertThat(sqlProfiler.getReport(20).getRequests()).isEmpty();
+        assertThat(sqlProfiler.getReport(20).getStatements()).isEmpty();
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.vesselsmanagement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StandingQueryIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private StandingQueryService standingQueryService;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        standingQueryService.getQueries().forEach(query -> standingQueryService.unregister(query.getId()));
+    }
+
+    @Test
+    void vesselEnteringAndLeavingCondition_ShouldBeNotifiedOnce() throws Exception {
+        Long queryId = register("{\"name\":\"Detained Maltese tankers\",\"type\":\"TANKER\",\"flagState\":\"Malta\",\"status\":\"DETAINED\"}");
+        Vessel tanker = vesselService.createVessel(new Vessel("Watched Tanker", "IMO9311111", VesselType.TANKER, "Malta"));
+        Vessel cargo = vesselService.createVessel(new Vessel("Other Ship", "IMO9322222", VesselType.CARGO_SHIP, "Malta"));
+        vesselService.updateVesselStatus(cargo.getId(), VesselStatus.DETAINED);
+        assertThat(notifications(queryId, 0)).isEmpty();
+
+        vesselService.updateVesselStatus(tanker.getId(), VesselStatus.DETAINED);
+        // Still matching after this change, so nothing to report
+        Vessel renamed = new Vessel("Renamed Tanker", "IMO9311111", VesselType.TANKER, "Malta");
+        renamed.setStatus(VesselStatus.DETAINED);
+        vesselService.updateVessel(tanker.getId(), renamed);
+        mockMvc.perform(get("/api/standing-queries/{id}/matches", queryId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Renamed Tanker"));
+
+        vesselService.updateVesselStatus(tanker.getId(), VesselStatus.AT_SEA);
+        vesselService.updateVesselStatus(tanker.getId(), VesselStatus.DETAINED);
+        vesselService.deleteVessel(tanker.getId());
+
+        List<StandingQueryNotification> notifications = notifications(queryId, 0);
+        assertThat(notifications).extracting(StandingQueryNotification::getEvent).containsExactly(
+                StandingQueryNotification.Event.MATCH, StandingQueryNotification.Event.UNMATCH,
+                StandingQueryNotification.Event.MATCH, StandingQueryNotification.Event.UNMATCH);
+        assertThat(notifications).extracting(StandingQueryNotification::getSequence).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(notifications).extracting(StandingQueryNotification::getVesselId).containsOnly(tanker.getId());
+        assertThat(notifications.get(3).getVessel()).isNull();
+        assertThat(notifications(queryId, 3)).hasSize(1);
+    }
+
+    @Test
+    void write_ShouldOnlyBeCheckedAgainstQueriesItCouldAffect() {
+        for (int i = 0; i < 200; i++) {
+            StandingQuery query = new StandingQuery();
+            query.setName("Flag " + i);
+            query.setFlagState("Flag " + i);
+            query.setStatus(VesselStatus.DETAINED);
+            standingQueryService.register(query);
+        }
+        StandingQuery malta = new StandingQuery();
+        malta.setName("Detained in Malta");
+        malta.setFlagState("Malta");
+        malta.setStatus(VesselStatus.DETAINED);
+        Long maltaId = standingQueryService.register(malta).getId();
+        long evaluations = standingQueryService.getEvaluationCount();
+
+        Vessel vessel = vesselService.createVessel(new Vessel("Maltese Ferry", "IMO9333333", VesselType.FERRY, "Malta"));
+        vesselService.updateVesselStatus(vessel.getId(), VesselStatus.DETAINED);
+
+        assertThat(standingQueryService.getEvaluationCount() - evaluations).isEqualTo(2);
+        assertThat(standingQueryService.getNotifications(maltaId, 0, 10)).hasSize(1);
+    }
+
+    @Test
+    void arrivalWindow_ShouldFollowTheClockAsWellAsWrites() throws Exception {
+        Long queryId = register("{\"name\":\"Due in Rotterdam\",\"nextPortOfCall\":\"Rotterdam\",\"estimatedArrivalWithin\":\"PT6H\"}");
+        LocalDateTime now = LocalDateTime.now();
+        Vessel vessel = new Vessel("Inbound", "IMO9344444", VesselType.CONTAINER_SHIP, "Panama");
+        vessel.setNextPortOfCall("Rotterdam");
+        vessel.setEstimatedArrival(now.plusHours(10));
+        vessel = vesselService.createVessel(vessel);
+        assertThat(notifications(queryId, 0)).isEmpty();
+
+        standingQueryService.evaluateTimeRelativeQueries(now.plusHours(5));
+        standingQueryService.evaluateTimeRelativeQueries(now.plusHours(11));
+        Vessel delayed = new Vessel("Inbound", "IMO9344444", VesselType.CONTAINER_SHIP, "Panama");
+        delayed.setNextPortOfCall("Rotterdam");
+        delayed.setEstimatedArrival(LocalDateTime.now().plusHours(2));
+        vesselService.updateVessel(vessel.getId(), delayed);
+
+        assertThat(notifications(queryId, 0)).extracting(StandingQueryNotification::getEvent).containsExactly(
+                StandingQueryNotification.Event.MATCH, StandingQueryNotification.Event.UNMATCH,
+                StandingQueryNotification.Event.MATCH);
+    }
+
+    @Test
+    void clockTick_ShouldOnlyCheckVesselsWhoseArrivalCrossedWindowEdge() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 50; i++) {
+            Vessel later = new Vessel("Later " + i, String.format("IMO%07d", 9400000 + i), VesselType.CARGO_SHIP, "Panama");
+            later.setEstimatedArrival(now.plusDays(10).plusHours(i));
+            vesselService.createVessel(later);
+        }
+        Vessel soon = new Vessel("Soon", "IMO9355555", VesselType.CARGO_SHIP, "Panama");
+        soon.setEstimatedArrival(now.plusHours(7));
+        soon = vesselService.createVessel(soon);
+        StandingQuery dueSoon = new StandingQuery();
+        dueSoon.setName("Due within six hours");
+        dueSoon.setEstimatedArrivalWithin(Duration.ofHours(6));
+        long beforeRegister = standingQueryService.getEvaluationCount();
+        Long queryId = standingQueryService.register(dueSoon).getId();
+        long beforeTick = standingQueryService.getEvaluationCount();
+
+        standingQueryService.evaluateTimeRelativeQueries(now.plusHours(2));
+
+        assertThat(beforeTick - beforeRegister).isZero();
+        assertThat(standingQueryService.getEvaluationCount() - beforeTick).isEqualTo(1);
+        assertThat(standingQueryService.getNotifications(queryId, 0, 10))
+                .extracting(StandingQueryNotification::getVesselId).containsExactly(soon.getId());
+    }
+
+    @Test
+    void register_WithPortCriterion_ShouldOnlyCheckVesselsBoundForThatPort() {
+        for (int i = 0; i < 50; i++) {
+            Vessel vessel = new Vessel("Bound " + i, String.format("IMO%07d", 9500000 + i), VesselType.TANKER, "Malta");
+            vessel.setNextPortOfCall(i < 2 ? "Hamburg" : "Antwerp");
+            vesselService.createVessel(vessel);
+        }
+        StandingQuery hamburg = new StandingQuery();
+        hamburg.setName("Bound for Hamburg");
+        hamburg.setNextPortOfCall("Hamburg");
+        long evaluations = standingQueryService.getEvaluationCount();
+
+        Long queryId = standingQueryService.register(hamburg).getId();
+
+        assertThat(standingQueryService.getEvaluationCount() - evaluations).isEqualTo(2);
+        assertThat(standingQueryService.getMatches(queryId)).hasSize(2);
+    }
+
+    @Test
+    void webhook_ShouldReceiveNotificationsOnLocalhostOnly() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/hook", exchange -> {
+            received.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String callback = "http://127.0.0.1:" + server.getAddress().getPort() + "/hook";
+            Long queryId = register("{\"name\":\"Fleet flagship\",\"imoNumber\":\"IMO9355555\",\"callbackUrl\":\"" + callback + "\"}");
+
+            vesselService.upsertVessels(List.of(new Vessel("Flagship", "IMO9355555", VesselType.PASSENGER_SHIP, "Norway")));
+
+            String body = received.poll(5, TimeUnit.SECONDS);
+            assertThat(body).contains("\"event\":\"MATCH\"").contains("\"queryId\":" + queryId).contains("Flagship");
+        } finally {
+            server.stop(0);
+        }
+
+        mockMvc.perform(post("/api/standing-queries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Remote\",\"type\":\"TANKER\",\"callbackUrl\":\"http://example.com/hook\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/standing-queries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Everything\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void register_WithNonPositiveArrivalWindow_ShouldBeRejected() throws Exception {
+        for (String within : List.of("PT0S", "-PT1H")) {
+            mockMvc.perform(post("/api/standing-queries")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"Never due\",\"estimatedArrivalWithin\":\"" + within + "\"}"))
+                    .andExpect(status().isBadRequest());
+        }
+        assertThat(standingQueryService.getQueries()).isEmpty();
+    }
+
+    @Test
+    void concurrentWriters_ShouldLeaveResultMatchingFinalState() throws Exception {
+        Long queryId = register("{\"name\":\"Detained\",\"status\":\"DETAINED\"}");
+        List<Vessel> vessels = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            vessels.add(vesselService.createVessel(new Vessel("Busy " + i, "IMO94" + (10000 + i), VesselType.CARGO_SHIP, "Malta")));
+        }
+
+        ExecutorService writers = Executors.newFixedThreadPool(vessels.size());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Vessel vessel : vessels) {
+                results.add(writers.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        vesselService.updateVesselStatus(vessel.getId(), round % 2 == 0 ? VesselStatus.DETAINED : VesselStatus.AT_SEA);
+                    }
+                    // Left detained by every other vessel
+                    if (vessel.getId() % 2 == 0) {
+                        vesselService.updateVesselStatus(vessel.getId(), VesselStatus.DETAINED);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        List<Long> detained = vessels.stream().map(Vessel::getId).filter(id -> id % 2 == 0).sorted().toList();
+        assertThat(standingQueryService.getMatches(queryId)).extracting(Vessel::getId).containsExactlyElementsOf(detained);
+        List<StandingQueryNotification> notifications = standingQueryService.getNotifications(queryId, 0, StandingQueryService.MAX_PULL_LIMIT);
+        assertThat(notifications).extracting(StandingQueryNotification::getSequence)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, notifications.size()).boxed().toList());
+    }
+
+    @Test
+    void unregister_ShouldStopTracking() throws Exception {
+        Long queryId = register("{\"name\":\"Ferries\",\"type\":\"FERRY\"}");
+
+        mockMvc.perform(delete("/api/standing-queries/{id}", queryId))
+                .andExpect(status().isNoContent());
+        vesselService.createVessel(new Vessel("Late Ferry", "IMO9366666", VesselType.FERRY, "Malta"));
+
+        mockMvc.perform(get("/api/standing-queries/{id}/notifications", queryId))
+                .andExpect(status().isNotFound());
+        assertThat(standingQueryService.getQueries()).isEmpty();
+    }
+
+    private Long register(String json) throws Exception {
+        String response = mockMvc.perform(post("/api/standing-queries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, StandingQuery.class).getId();
+    }
+
+    private List<StandingQueryNotification> notifications(Long queryId, long after) throws Exception {
+        String response = mockMvc.perform(get("/api/standing-queries/{id}/notifications", queryId).param("after", String.valueOf(after)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return List.of(objectMapper.readValue(response, StandingQueryNotification[].class));
+    }
+}
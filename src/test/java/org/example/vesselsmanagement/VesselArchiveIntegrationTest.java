@@ -0,0 +1,143 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class VesselArchiveIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselArchiveService vesselArchiveService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private ArchivedVesselRepository archivedVesselRepository;
+
+    @Autowired
+    private VesselHistoryService vesselHistoryService;
+
+    private Vessel decommissioned;
+
+    private Vessel active;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+        archivedVesselRepository.deleteAll();
+
+        decommissioned = vesselService.createVessel(new Vessel("Retired Tanker", "IMO9123456", VesselType.TANKER, "Malta"));
+        decommissioned = vesselService.updateVesselStatus(decommissioned.getId(), VesselStatus.DECOMMISSIONED);
+        active = vesselService.createVessel(new Vessel("Working Tanker", "IMO9234567", VesselType.TANKER, "Malta"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        VesselArchiveService target = AopTestUtils.getTargetObject(vesselArchiveService);
+        ReflectionTestUtils.setField(target, "chunkSize", 500);
+        ReflectionTestUtils.setField(target, "maxPerRun", 50000);
+        ReflectionTestUtils.setField(target, "pauseMillis", 200L);
+    }
+
+    @Test
+    void archive_ShouldMoveOnlyDecommissionedVesselsPastRetention() throws Exception {
+        assertThat(vesselArchiveService.archiveDecommissionedBefore(decommissioned.getUpdatedAt().minusSeconds(1)).getArchived()).isZero();
+
+        VesselArchiveResult result = vesselArchiveService.archiveDecommissionedBefore(LocalDateTime.now().plusSeconds(1));
+
+        assertThat(result.getArchived()).isEqualTo(1);
+        assertThat(vesselRepository.findAll()).extracting(Vessel::getId).containsExactly(active.getId());
+        assertThat(vesselService.getVesselsByType(VesselType.TANKER)).extracting(Vessel::getId).containsExactly(active.getId());
+        assertThat(archivedVesselRepository.findById(decommissioned.getId())).get()
+                .satisfies(archived -> assertThat(archived.getImoNumber()).isEqualTo("IMO9123456"));
+        // Archiving changes where the vessel is stored, not its history
+        assertThat(vesselHistoryService.getVesselAsOf(decommissioned.getId(), LocalDateTime.now()).getStatus())
+                .isEqualTo(VesselStatus.DECOMMISSIONED);
+
+        mockMvc.perform(get("/api/vessels/{id}", decommissioned.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/vessels/{id}", decommissioned.getId()).param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Retired Tanker"));
+        mockMvc.perform(get("/api/vessels/imo/{imoNumber}", "IMO9123456").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(decommissioned.getId()));
+        mockMvc.perform(get("/api/vessels/search").param("name", "Tanker").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/archive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(decommissioned.getId()));
+    }
+
+    @Test
+    void archive_ShouldWorkInChunksUpToTheRunLimit() {
+        for (int i = 0; i < 4; i++) {
+            Vessel vessel = vesselService.createVessel(new Vessel("Retired " + i, "IMO970000" + i, VesselType.FERRY, "Malta"));
+            vesselService.updateVesselStatus(vessel.getId(), VesselStatus.DECOMMISSIONED);
+        }
+        VesselArchiveService target = AopTestUtils.getTargetObject(vesselArchiveService);
+        ReflectionTestUtils.setField(target, "chunkSize", 2);
+        ReflectionTestUtils.setField(target, "maxPerRun", 4);
+        ReflectionTestUtils.setField(target, "pauseMillis", 0L);
+
+        VesselArchiveResult first = vesselArchiveService.archiveDecommissionedBefore(LocalDateTime.now().plusSeconds(1));
+        assertThat(first.getArchived()).isEqualTo(4);
+        assertThat(first.getChunks()).isEqualTo(2);
+        assertThat(first.isLimitReached()).isTrue();
+
+        VesselArchiveResult second = vesselArchiveService.archiveDecommissionedBefore(LocalDateTime.now().plusSeconds(1));
+        assertThat(second.getArchived()).isEqualTo(1);
+        assertThat(second.isLimitReached()).isFalse();
+        assertThat(archivedVesselRepository.count()).isEqualTo(5);
+        assertThat(vesselRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void restore_ShouldPutVesselBackUnderItsId() throws Exception {
+        LocalDateTime cutoff = LocalDateTime.now();
+        assertThat(vesselArchiveService.archiveDecommissionedBefore(cutoff).getArchived()).isEqualTo(1);
+
+        mockMvc.perform(post("/api/archive/{id}/restore", decommissioned.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(decommissioned.getId()))
+                .andExpect(jsonPath("$.status").value("DECOMMISSIONED"));
+
+        assertThat(vesselService.getVesselById(decommissioned.getId()).getName()).isEqualTo("Retired Tanker");
+        assertThat(archivedVesselRepository.count()).isZero();
+        // The retention period starts over
+        assertThat(vesselArchiveService.archiveDecommissionedBefore(cutoff).getArchived()).isZero();
+    }
+
+    @Test
+    void restore_WhenImoNumberTakenMeanwhile_ShouldBeRejected() throws Exception {
+        vesselArchiveService.archiveDecommissionedBefore(LocalDateTime.now().plusSeconds(1));
+        vesselService.createVessel(new Vessel("Successor", "IMO9123456", VesselType.TANKER, "Malta"));
+
+        mockMvc.perform(post("/api/archive/{id}/restore", decommissioned.getId()))
+                .andExpect(status().isBadRequest());
+        assertThat(archivedVesselRepository.existsById(decommissioned.getId())).isTrue();
+        assertThatThrownBy(() -> vesselArchiveService.restoreVessel(-1L)).isInstanceOf(VesselNotFoundException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two instances against one shared in-memory database, each with its own
+ * second-level cache, and checks that a write on one becomes visible on the other.
+ */
+class VesselCacheCoherenceIntegrationTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(VesselsManagementApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:coherence;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.javax.cache.uri=coherence-" + nodeId + ".conf",
+                "--spring.sql.init.mode=never",
+                "--spring.h2.console.enabled=false",
+                "--server.port=0",
+                "--vessels.reactive.enabled=false",
+                "--vessels.coherence.node-id=" + nodeId,
+                "--vessels.coherence.poll-interval-ms=100");
+    }
+
+    @Test
+    void updateOnOneNode_ShouldInvalidateCachesOnOtherNode() throws InterruptedException {
+        VesselService serviceA = nodeA.getBean(VesselService.class);
+        VesselService serviceB = nodeB.getBean(VesselService.class);
+
+        Vessel vessel = serviceA.createVessel(new Vessel("Coherent Voyager", "IMO5556667", VesselType.TANKER, "Malta"));
+        Long id = vessel.getId();
+        awaitTrue(() -> serviceB.getVesselsByStatus(VesselStatus.ACTIVE).stream().anyMatch(v -> v.getId().equals(id)));
+
+        // Warm node A's entity and query caches, then change the vessel through node B
+        assertThat(serviceA.getVesselById(id).getStatus()).isEqualTo(VesselStatus.ACTIVE);
+        assertThat(serviceA.getVesselsByStatus(VesselStatus.DETAINED)).isEmpty();
+        serviceB.updateVesselStatus(id, VesselStatus.DETAINED);
+
+        awaitTrue(() -> serviceA.getVesselById(id).getStatus() == VesselStatus.DETAINED);
+        awaitTrue(() -> serviceA.getVesselsByStatus(VesselStatus.DETAINED).size() == 1);
+    }
+
+    @Test
+    void upsertOnOneNode_ShouldInvalidateCachesOnOtherNode() throws InterruptedException {
+        VesselService serviceA = nodeA.getBean(VesselService.class);
+        VesselService serviceB = nodeB.getBean(VesselService.class);
+
+        Vessel vessel = serviceA.createVessel(new Vessel("Registry Sync", "IMO7778889", VesselType.CARGO_SHIP, "Liberia"));
+        assertThat(serviceA.getVesselById(vessel.getId()).getFlagState()).isEqualTo("Liberia");
+
+        Vessel update = new Vessel("Registry Sync", "IMO7778889", VesselType.CARGO_SHIP, "Panama");
+        serviceB.upsertVessels(List.of(update));
+
+        awaitTrue(() -> "Panama".equals(serviceA.getVesselById(vessel.getId()).getFlagState()));
+    }
+
+    @Test
+    void changeCommittedAfterManyOthers_ShouldStillReachOtherNode() throws Exception {
+        VesselService serviceA = nodeA.getBean(VesselService.class);
+        VesselService serviceB = nodeB.getBean(VesselService.class);
+        Vessel vessel = serviceA.createVessel(new Vessel("Slow Commit", "IMO8889990", VesselType.FERRY, "Malta"));
+        assertThat(serviceA.getVesselById(vessel.getId()).getStatus()).isEqualTo(VesselStatus.ACTIVE);
+
+        // Takes its change id first, then stays open while 300 later changes commit
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() ->
+                nodeB.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    serviceB.updateVesselStatus(vessel.getId(), VesselStatus.DETAINED);
+                    written.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Vessel> others = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            others.add(new Vessel("Bulk " + i, String.format("IMO%07d", 6100000 + i), VesselType.CARGO_SHIP, "Panama"));
+        }
+        serviceB.upsertVessels(others);
+        awaitTrue(() -> serviceA.getVesselsByType(VesselType.CARGO_SHIP).size() >= 300);
+        Thread.sleep(300);
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        awaitTrue(() -> serviceA.getVesselById(vessel.getId()).getStatus() == VesselStatus.DETAINED);
+    }
+
+    private static void awaitTrue(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.get()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class VesselCacheIntegrationTest {
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Vessel savedVessel;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+
+        Vessel vessel = new Vessel("Cache Test Vessel", "IMO1112223", VesselType.TANKER, "Malta");
+        savedVessel = vesselRepository.save(vessel);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // Service reads are answered by the read model; the caches still serve the repository directly
+    @Test
+    void findById_SecondLookup_ShouldHitSecondLevelCache() {
+        vesselRepository.findById(savedVessel.getId());
+        vesselRepository.findById(savedVessel.getId());
+
+        assertThat(statistics.getDomainDataRegionStatistics("vessels").getHitCount()).isEqualTo(1);
+        // Counted for Vessel alone: scheduled jobs in the shared context load other entities meanwhile
+        assertThat(statistics.getEntityStatistics(Vessel.class.getName()).getLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByType_RepeatedQuery_ShouldHitQueryCache() {
+        vesselRepository.findByType(VesselType.TANKER);
+        vesselRepository.findByType(VesselType.TANKER);
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateVesselStatus_ShouldInvalidateCachedQueryResults() {
+        assertThat(vesselService.getVesselsByStatus(VesselStatus.DETAINED)).isEmpty();
+
+        vesselService.updateVesselStatus(savedVessel.getId(), VesselStatus.DETAINED);
+
+        List<Vessel> detained = vesselService.getVesselsByStatus(VesselStatus.DETAINED);
+        assertThat(detained).extracting(Vessel::getImoNumber).containsExactly("IMO1112223");
+        assertThat(vesselService.getVesselById(savedVessel.getId()).getStatus()).isEqualTo(VesselStatus.DETAINED);
+        assertThat(vesselService.getVesselCountByType(VesselType.TANKER)).isEqualTo(1L);
+        assertThat(vesselRepository.findByStatus(VesselStatus.DETAINED)).extracting(Vessel::getImoNumber).containsExactly("IMO1112223");
+    }
+
+    @Test
+    void findAllByIdCached_ShouldServeCachedVesselsWithoutQuery() {
+        vesselRepository.findById(savedVessel.getId());
+        statistics.clear();
+
+        List<Vessel> result = vesselRepository.findAllByIdCached(List.of(savedVessel.getId(), -1L));
+
+        assertThat(result).extracting(Vessel::getId).containsExactly(savedVessel.getId());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
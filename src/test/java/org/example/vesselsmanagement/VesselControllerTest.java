@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,6 +22,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(VesselController.class)
+@Import(VesselJsonCache.class)
 class VesselControllerTest {
 
     @Autowired
@@ -61,14 +63,29 @@ class VesselControllerTest {
 
     @Test
     void getVesselById_WhenExists_ShouldReturnVessel() throws Exception {
-        when(vesselService.getVesselById(1L)).thenReturn(testVessel);
+        when(vesselService.getVesselById(1L, false)).thenReturn(testVessel);
 
         mockMvc.perform(get("/api/vessels/1"))
                 .andExpect(status().isOk())
-                .andExpected(jsonPath("$.name").value("Test Vessel"))
+                .andExpect(jsonPath("$.name").value("Test Vessel"))
                 .andExpect(jsonPath("$.imoNumber").value("IMO1234567"));
 
-        verify(vesselService).getVesselById(1L);
+        verify(vesselService).getVesselById(1L, false);
+    }
+
+    @Test
+    void getVesselsByIds_ShouldReturnFoundAndMissing() throws Exception {
+        VesselBatchResult<Long> result = new VesselBatchResult<>(List.of(testVessel), List.of(2L));
+        when(vesselService.getVesselsByIds(Arrays.asList(1L, 2L))).thenReturn(result);
+
+        mockMvc.perform(post("/api/vessels/batch/by-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vessels[0].imoNumber").value("IMO1234567"))
+                .andExpect(jsonPath("$.notFound[0]").value(2));
+
+        verify(vesselService).getVesselsByIds(Arrays.asList(1L, 2L));
     }
 
     @Test
@@ -97,6 +114,31 @@ class VesselControllerTest {
         verify(vesselService).updateVessel(eq(1L), any(Vessel.class));
     }
 
+    @Test
+    void upsertVesselByImoNumber_ShouldReturnUpsertedVessel() throws Exception {
+        when(vesselService.upsertVesselByImoNumber(eq("IMO1234567"), any(Vessel.class))).thenReturn(testVessel);
+
+        mockMvc.perform(put("/api/vessels/imo/IMO1234567")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testVessel)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imoNumber").value("IMO1234567"));
+
+        verify(vesselService).upsertVesselByImoNumber(eq("IMO1234567"), any(Vessel.class));
+    }
+
+    @Test
+    void upsertVessels_WithInvalidVessel_ShouldReturnBadRequest() throws Exception {
+        testVessel.setImoNumber("123");
+
+        mockMvc.perform(put("/api/vessels/imo")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(testVessel))))
+                .andExpect(status().isBadRequest());
+
+        verify(vesselService, never()).upsertVessels(any());
+    }
+
     @Test
     void deleteVessel_ShouldDeleteVessel() throws Exception {
         doNothing().when(vesselService).deleteVessel(1L);
@@ -0,0 +1,157 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class VesselHistoryIntegrationTest {
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselHistoryService vesselHistoryService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private VesselVersionRepository vesselVersionRepository;
+
+    @Autowired
+    private VesselVersionCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+        vesselVersionRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void getVesselAsOf_ShouldReturnStateAtThatTime() throws InterruptedException {
+        Vessel vessel = vesselService.createVessel(new Vessel("History Vessel", "IMO9123456", VesselType.TANKER, "Malta"));
+        LocalDateTime afterCreate = tick();
+        vesselService.updateVesselStatus(vessel.getId(), VesselStatus.AT_SEA);
+        LocalDateTime afterDeparture = tick();
+        vesselService.updateVesselStatus(vessel.getId(), VesselStatus.IN_PORT);
+
+        assertThat(vesselHistoryService.getVesselAsOf(vessel.getId(), afterCreate).getStatus()).isEqualTo(VesselStatus.ACTIVE);
+        assertThat(vesselHistoryService.getVesselAsOfByImoNumber("IMO9123456", afterDeparture).getStatus()).isEqualTo(VesselStatus.AT_SEA);
+        assertThat(vesselHistoryService.getVesselAsOf(vessel.getId(), LocalDateTime.now()).getStatus()).isEqualTo(VesselStatus.IN_PORT);
+        assertThatThrownBy(() -> vesselHistoryService.getVesselAsOf(vessel.getId(), afterCreate.minusHours(1)))
+                .isInstanceOf(VesselNotFoundException.class);
+    }
+
+    @Test
+    void getVesselHistory_ShouldIncludeVersionInEffectAtStart() throws InterruptedException {
+        Vessel vessel = vesselService.createVessel(new Vessel("Timeline Vessel", "IMO9234567", VesselType.FERRY, "Greece"));
+        LocalDateTime from = tick();
+        vesselService.updateVesselStatus(vessel.getId(), VesselStatus.AT_SEA);
+        vesselService.updateVesselStatus(vessel.getId(), VesselStatus.DETAINED);
+
+        List<VesselVersion> history = vesselHistoryService.getVesselHistory(vessel.getId(), from, LocalDateTime.now());
+
+        assertThat(history).extracting(VesselVersion::getStatus)
+                .containsExactly(VesselStatus.ACTIVE, VesselStatus.AT_SEA, VesselStatus.DETAINED);
+    }
+
+    @Test
+    void getFleetAsOf_ShouldExcludeVesselsCreatedLaterOrDeleted() throws InterruptedException {
+        Vessel kept = vesselService.createVessel(new Vessel("Fleet Kept", "IMO9345678", VesselType.CARGO_SHIP, "Panama"));
+        Vessel scrapped = vesselService.createVessel(new Vessel("Fleet Scrapped", "IMO9456789", VesselType.BULK_CARRIER, "Liberia"));
+        LocalDateTime beforeChanges = tick();
+        vesselService.updateVesselStatus(kept.getId(), VesselStatus.AT_SEA);
+        vesselService.deleteVessel(scrapped.getId());
+        vesselService.createVessel(new Vessel("Fleet Newcomer", "IMO9567890", VesselType.TUGBOAT, "Malta"));
+
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("vesselId"));
+        assertThat(vesselHistoryService.getFleetAsOf(beforeChanges, pageable).getContent())
+                .extracting(VesselVersion::getImoNumber, VesselVersion::getStatus)
+                .containsExactly(tuple("IMO9345678", VesselStatus.ACTIVE),
+                        tuple("IMO9456789", VesselStatus.ACTIVE));
+        assertThat(vesselHistoryService.getFleetAsOf(LocalDateTime.now(), pageable).getContent())
+                .extracting(VesselVersion::getImoNumber)
+                .containsExactly("IMO9345678", "IMO9567890");
+    }
+
+    @Test
+    void getFleetAsOf_FromCheckpoint_ShouldMatchFullHistory() throws InterruptedException {
+        Vessel kept = vesselService.createVessel(new Vessel("Checkpoint Kept", "IMO9345601", VesselType.CARGO_SHIP, "Panama"));
+        Vessel scrapped = vesselService.createVessel(new Vessel("Checkpoint Scrapped", "IMO9345602", VesselType.TANKER, "Malta"));
+        Vessel early = vesselService.createVessel(new Vessel("Checkpoint Early", "IMO9345603", VesselType.FERRY, "Malta"));
+        vesselService.deleteVessel(early.getId());
+        LocalDateTime beforeCheckpoint = tick();
+        vesselService.updateVesselStatus(kept.getId(), VesselStatus.AT_SEA);
+        LocalDateTime firstCheckpoint = tick();
+        vesselService.deleteVessel(scrapped.getId());
+        vesselService.updateVesselStatus(kept.getId(), VesselStatus.DETAINED);
+        vesselService.createVessel(new Vessel("Checkpoint Newcomer", "IMO9345604", VesselType.TUGBOAT, "Malta"));
+        LocalDateTime secondCheckpoint = tick();
+        vesselService.updateVesselStatus(kept.getId(), VesselStatus.ACTIVE);
+        LocalDateTime afterCheckpoints = tick();
+
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("vesselId"));
+        List<LocalDateTime> times = List.of(beforeCheckpoint, firstCheckpoint, secondCheckpoint, afterCheckpoints);
+        List<List<VesselVersion>> withoutCheckpoints = times.stream()
+                .map(at -> vesselHistoryService.getFleetAsOf(at, pageable).getContent()).toList();
+
+        assertThat(vesselHistoryService.recordCheckpoint(firstCheckpoint)).isEqualTo(2);
+        // Built from the first one
+        assertThat(vesselHistoryService.recordCheckpoint(secondCheckpoint)).isEqualTo(2);
+        assertThat(vesselHistoryService.recordCheckpoint(secondCheckpoint)).isZero();
+
+        for (int i = 0; i < times.size(); i++) {
+            assertThat(vesselHistoryService.getFleetAsOf(times.get(i), pageable).getContent())
+                    .extracting(VesselVersion::getId)
+                    .containsExactlyElementsOf(withoutCheckpoints.get(i).stream().map(VesselVersion::getId).toList());
+        }
+        assertThat(vesselHistoryService.getFleetAsOf(secondCheckpoint, pageable).getContent())
+                .extracting(VesselVersion::getImoNumber, VesselVersion::getStatus)
+                .containsExactly(tuple("IMO9345601", VesselStatus.DETAINED), tuple("IMO9345604", VesselStatus.ACTIVE));
+    }
+
+    @Test
+    void upsertVessels_ShouldRecordOnlyChangedRows() {
+        Vessel vessel = new Vessel("Upserted History", "IMO9678901", VesselType.TANKER, "Norway");
+        vesselService.upsertVessels(List.of(vessel));
+        vesselService.upsertVessels(List.of(vessel));
+        vessel.setStatus(VesselStatus.UNDER_MAINTENANCE);
+        vesselService.upsertVessels(List.of(vessel));
+
+        Long id = vesselService.getVesselByImoNumber("IMO9678901").getId();
+        assertThat(vesselHistoryService.getVesselHistory(id, LocalDateTime.now().minusHours(1), LocalDateTime.now()))
+                .extracting(VesselVersion::getStatus)
+                .containsExactly(VesselStatus.ACTIVE, VesselStatus.UNDER_MAINTENANCE);
+    }
+
+    @Test
+    void updateVesselStatus_ShouldRecordVersionValidFromUpdatedAt() {
+        Vessel vessel = vesselService.createVessel(new Vessel("Stamped Vessel", "IMO9789012", VesselType.TANKER, "Cyprus"));
+        Vessel updated = vesselService.updateVesselStatus(vessel.getId(), VesselStatus.AT_SEA);
+
+        LocalDateTime storedUpdatedAt = vesselRepository.findById(vessel.getId()).orElseThrow().getUpdatedAt();
+        assertThat(updated.getUpdatedAt()).isEqualTo(storedUpdatedAt);
+        assertThat(vesselHistoryService.getVesselHistory(vessel.getId(), vessel.getCreatedAt(), storedUpdatedAt))
+                .extracting(VesselVersion::getValidFrom)
+                .containsExactly(vessel.getCreatedAt(), storedUpdatedAt);
+    }
+
+    // Separates consecutive writes so each gets a distinct valid_from
+    private static LocalDateTime tick() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+}
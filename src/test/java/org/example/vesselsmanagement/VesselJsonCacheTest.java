@@ -0,0 +1,69 @@
+package org.example.vesselsmanagement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VesselJsonCacheTest {
+
+    private ObjectMapper objectMapper;
+
+    private VesselJsonCache vesselJsonCache;
+
+    private Vessel testVessel;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        vesselJsonCache = new VesselJsonCache(objectMapper, 100);
+
+        testVessel = new Vessel("Test Vessel", "IMO1234567", VesselType.CARGO_SHIP, "Panama");
+        testVessel.setId(1L);
+        testVessel.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+    }
+
+    @Test
+    void toJson_WhenUnchanged_ShouldReuseCachedFragment() {
+        RawValue first = vesselJsonCache.toJson(testVessel);
+        RawValue second = vesselJsonCache.toJson(testVessel);
+
+        assertSame(first, second);
+        assertEquals(1, vesselJsonCache.size());
+    }
+
+    @Test
+    void toJson_WhenUpdatedAtChanges_ShouldReserialize() throws Exception {
+        RawValue first = vesselJsonCache.toJson(testVessel);
+
+        testVessel.setName("Renamed Vessel");
+        testVessel.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 12, 0));
+        RawValue second = vesselJsonCache.toJson(testVessel);
+
+        assertNotSame(first, second);
+        assertEquals("Renamed Vessel", objectMapper.readTree(objectMapper.writeValueAsString(second)).get("name").asText());
+    }
+
+    @Test
+    void toJson_ShouldMatchRegularSerialization() throws Exception {
+        String expected = objectMapper.writeValueAsString(List.of(testVessel));
+
+        String actual = objectMapper.writeValueAsString(vesselJsonCache.toJson(List.of(testVessel)));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void evict_ShouldDropCachedFragment() {
+        vesselJsonCache.toJson(testVessel);
+
+        vesselJsonCache.evict(1L);
+
+        assertEquals(0, vesselJsonCache.size());
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.vesselsmanagement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class VesselPositionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselPositionService vesselPositionService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private VesselPositionRepository vesselPositionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Vessel tanker;
+
+    private Vessel ferry;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+        vesselPositionRepository.deleteAll();
+        vesselPositionService.rebuildIndex();
+
+        tanker = vesselService.createVessel(new Vessel("Position Tanker", "IMO8123456", VesselType.TANKER, "Malta"));
+        ferry = vesselService.createVessel(new Vessel("Position Ferry", "IMO8234567", VesselType.FERRY, "Netherlands"));
+    }
+
+    @Test
+    void reportPositions_ThenQueryBox_ShouldFilterByType() throws Exception {
+        List<VesselPosition> reports = List.of(
+                new VesselPosition(tanker.getId(), 51.95, 4.05),
+                new VesselPosition(ferry.getId(), 51.98, 4.12),
+                new VesselPosition(-1L, 51.9, 4.1));
+
+        mockMvc.perform(post("/api/vessels/positions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reports)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.unknownVesselIds[0]").value(-1));
+
+        mockMvc.perform(get("/api/vessels/positions/box")
+                        .param("minLat", "51.5").param("minLon", "3.5")
+                        .param("maxLat", "52.5").param("maxLon", "4.5")
+                        .param("type", "TANKER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].imoNumber").value("IMO8123456"));
+    }
+
+    @Test
+    void nearest_ShouldFollowStatusChanges() throws Exception {
+        vesselPositionService.reportPositions(List.of(
+                new VesselPosition(tanker.getId(), 1.26, 103.82),
+                new VesselPosition(ferry.getId(), 1.30, 103.90)));
+
+        vesselService.updateVesselStatus(ferry.getId(), VesselStatus.DETAINED);
+
+        mockMvc.perform(get("/api/vessels/positions/nearest")
+                        .param("lat", "1.29").param("lon", "103.89")
+                        .param("k", "5").param("status", "DETAINED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].vessel.vesselId").value(ferry.getId()))
+                .andExpect(jsonPath("$[0].vessel.status").value("DETAINED"));
+    }
+
+    @Test
+    void flushPendingWrites_ShouldPersistLatestPositionOnly() {
+        VesselPosition first = new VesselPosition(tanker.getId(), 10.0, 20.0);
+        first.setReportedAt(LocalDateTime.now().minusMinutes(2));
+        VesselPosition latest = new VesselPosition(tanker.getId(), 10.5, 20.5);
+        latest.setReportedAt(LocalDateTime.now().minusMinutes(1));
+        vesselPositionService.reportPositions(List.of(latest, first));
+
+        vesselPositionService.flushPendingWrites();
+
+        VesselPosition stored = vesselPositionRepository.findById(tanker.getId()).orElseThrow();
+        assertThat(stored.getLatitude()).isEqualTo(10.5);
+        assertThat(stored.getLongitude()).isEqualTo(20.5);
+    }
+
+    @Test
+    void refreshFromStore_ShouldPickUpPeerWriteWithOldReportTime() {
+        vesselPositionService.reportPositions(List.of(new VesselPosition(ferry.getId(), 51.98, 4.12)));
+        vesselPositionService.flushPendingWrites();
+        vesselPositionService.refreshFromStore();
+
+        // Another instance flushes a report the vessel sent a day ago, e.g. after an outage
+        jdbcTemplate.update("INSERT INTO vessel_positions (vessel_id, latitude, longitude, reported_at, written_at) "
+                + "VALUES (?, 12.5, 45.0, ?, LOCALTIMESTAMP)", tanker.getId(), LocalDateTime.now().minusDays(1));
+        vesselPositionService.refreshFromStore();
+
+        assertThat(vesselPositionService.getTrackedVessel(tanker.getId()).latitude()).isEqualTo(12.5);
+    }
+
+    @Test
+    void deleteVessel_ShouldRemoveItFromIndex() throws Exception {
+        vesselPositionService.reportPositions(List.of(new VesselPosition(tanker.getId(), -33.86, 151.21)));
+        vesselPositionService.flushPendingWrites();
+
+        vesselService.deleteVessel(tanker.getId());
+
+        mockMvc.perform(get("/api/vessels/{id}/position", tanker.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/vessels/positions/radius")
+                        .param("lat", "-33.86").param("lon", "151.21").param("radiusKm", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        assertThat(vesselPositionRepository.findById(tanker.getId())).isEmpty();
+    }
+
+    @Test
+    void reportPosition_WithInvalidLatitude_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(put("/api/vessels/{id}/position", tanker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\": 95.0, \"longitude\": 4.1}"))
+                .andExpect(status().isBadRequest());
+    }
+}
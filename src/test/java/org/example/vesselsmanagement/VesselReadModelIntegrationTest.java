@@ -0,0 +1,188 @@
+package org.example.vesselsmanagement;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class VesselReadModelIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    @Autowired
+    private VesselReadModel vesselReadModel;
+
+    @Autowired
+    private VesselReadModelService vesselReadModelService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Vessel vessel;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+        vesselReadModelService.rebuild();
+        vessel = vesselService.createVessel(new Vessel("Model Vessel", "IMO6123456", VesselType.TANKER, "Malta"));
+    }
+
+    @Test
+    void reads_ShouldBeServedWithoutQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(vesselService.getVesselById(vessel.getId()).getName()).isEqualTo("Model Vessel");
+        assertThat(vesselService.getVesselsByType(VesselType.TANKER)).extracting(Vessel::getId).containsExactly(vessel.getId());
+        assertThat(vesselService.searchVesselsByName("Model")).hasSize(1);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void committedWrites_ShouldBeVisibleImmediately() {
+        vesselService.updateVesselStatus(vessel.getId(), VesselStatus.DETAINED);
+        assertThat(vesselService.getVesselsByStatus(VesselStatus.DETAINED)).extracting(Vessel::getId).containsExactly(vessel.getId());
+
+        vesselService.upsertVesselByImoNumber("IMO6234567", new Vessel("Upserted", "IMO6234567", VesselType.FERRY, "Malta"));
+        assertThat(vesselReadModel.getByImoNumber("IMO6234567")).isPresent();
+
+        vesselService.deleteVessel(vessel.getId());
+        assertThat(vesselReadModel.get(vessel.getId())).isEmpty();
+        assertThat(vesselService.getVesselCountByType(VesselType.TANKER)).isZero();
+    }
+
+    @Test
+    void rolledBackWrite_ShouldNotReachModel() {
+        transactionTemplate.executeWithoutResult(status -> {
+            vesselRepository.findById(vessel.getId()).orElseThrow().setName("Never Committed");
+            vesselRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(vesselService.getVesselById(vessel.getId()).getName()).isEqualTo("Model Vessel");
+    }
+
+    @Test
+    void checkConsistency_ShouldReportAndRepairWritesThatBypassedTheModel() throws Exception {
+        jdbcTemplate.update("UPDATE vessels SET name = 'Renamed' WHERE id = ?", vessel.getId());
+        jdbcTemplate.update("INSERT INTO vessels (name, imo_number, type, flag_state, status, created_at, updated_at) "
+                + "VALUES ('Inserted', 'IMO6345678', 'FERRY', 'Malta', 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+
+        ReadModelConsistencyReport report = vesselReadModelService.checkConsistency(false);
+        assertThat(report.isConsistent()).isFalse();
+        assertThat(report.getStaleIds()).containsExactly(vessel.getId());
+        assertThat(report.getMissingIds()).hasSize(1);
+        assertThat(report.isRepaired()).isFalse();
+
+        mockMvc.perform(get("/api/read-model/consistency").param("repair", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.repaired").value(true))
+                .andExpect(jsonPath("$.databaseVessels").value(2));
+
+        assertThat(vesselService.getVesselById(vessel.getId()).getName()).isEqualTo("Renamed");
+        assertThat(vesselService.getVesselByImoNumber("IMO6345678").getName()).isEqualTo("Inserted");
+        assertThat(vesselReadModelService.checkConsistency(false).isConsistent()).isTrue();
+    }
+
+    @Test
+    void checkConsistency_WithLaggingReplica_ShouldCompareAgainstPrimary() throws Exception {
+        // The replica only exists once the primary has been copied into it; until then it fails its health check
+        String replicaUrl = "jdbc:h2:mem:read-model-replica;DB_CLOSE_DELAY=-1";
+        try (ConfigurableApplicationContext node = new SpringApplicationBuilder(VesselsManagementApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:read-model-primary",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.javax.cache.uri=read-model-replica.conf",
+                "--spring.sql.init.mode=never",
+                "--spring.h2.console.enabled=false",
+                "--server.port=0",
+                "--vessels.reactive.enabled=false",
+                "--vessels.datasource.replicas[0].url=jdbc:h2:mem:read-model-replica;IFEXISTS=TRUE");
+             Connection replica = DriverManager.getConnection(replicaUrl)) {
+            VesselService service = node.getBean(VesselService.class);
+            VesselReadModelService readModelService = node.getBean(VesselReadModelService.class);
+            JdbcTemplate primaryJdbc = node.getBean(JdbcTemplate.class);
+            Vessel lagging = service.createVessel(new Vessel("Lagging Vessel", "IMO6234567", VesselType.TANKER, "Malta"));
+
+            try (Statement statement = replica.createStatement()) {
+                for (String sql : primaryJdbc.queryForList("SCRIPT", String.class)) {
+                    statement.execute(sql);
+                }
+            }
+            node.getBean(DataSource.class).unwrap(ReadWriteRoutingDataSource.class).checkReplicas();
+            primaryJdbc.update("UPDATE vessels SET flag_state = 'Panama' WHERE id = ?", lagging.getId());
+
+            DataSourceRoutingContext.setClientId("read-model-check");
+            TransactionTemplate readOnly = new TransactionTemplate(node.getBean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            String replicaFlagState = readOnly.execute(status -> primaryJdbc.queryForObject(
+                    "SELECT flag_state FROM vessels WHERE id = ?", String.class, lagging.getId()));
+            assertThat(replicaFlagState).isEqualTo("Malta");
+
+            // Called from a read-only transaction, whose own reads go to the replica
+            ReadModelConsistencyReport report = readOnly.execute(status -> readModelService.checkConsistency(true));
+            assertThat(report.getStaleIds()).containsExactly(lagging.getId());
+            VesselReadModel readModel = node.getBean(VesselReadModel.class);
+            assertThat(readModel.get(lagging.getId()).orElseThrow().getFlagState()).isEqualTo("Panama");
+
+            primaryJdbc.update("UPDATE vessels SET name = 'Caught Up' WHERE id = ?", lagging.getId());
+            readOnly.executeWithoutResult(status -> readModelService.invalidateVessels(List.of(lagging.getId())));
+            assertThat(readModel.get(lagging.getId()).orElseThrow().getName()).isEqualTo("Caught Up");
+
+            readOnly.executeWithoutResult(status -> readModelService.rebuild());
+            assertThat(readModel.get(lagging.getId()).orElseThrow().getFlagState()).isEqualTo("Panama");
+        } finally {
+            DataSourceRoutingContext.clear();
+        }
+    }
+
+    @Test
+    void rebuild_ShouldPageThroughAllVessels() throws Exception {
+        List<Vessel> vessels = new ArrayList<>();
+        for (int i = 0; i < VesselReadModelService.LOAD_BATCH_SIZE + 5; i++) {
+            vessels.add(new Vessel("Batch " + i, String.format("IMO7%06d", i), VesselType.CARGO_SHIP, "Panama"));
+        }
+        vesselService.upsertVessels(vessels.subList(0, VesselService.MAX_BATCH_SIZE));
+        vesselService.upsertVessels(vessels.subList(VesselService.MAX_BATCH_SIZE, vessels.size()));
+
+        mockMvc.perform(post("/api/read-model/rebuild")).andExpect(status().isNoContent());
+
+        assertThat(vesselReadModel.size()).isEqualTo(VesselReadModelService.LOAD_BATCH_SIZE + 6);
+        assertThat(vesselReadModelService.checkConsistency(false).isConsistent()).isTrue();
+    }
+}
@@ -0,0 +1,215 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VesselReadModelTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 3, 12, 0);
+
+    private VesselReadModel model;
+
+    @BeforeEach
+    void setUp() {
+        model = new VesselReadModel();
+        model.replaceAll(List.of(
+                vessel(3L, "Charlie", "IMO3000000", VesselType.TANKER, VesselStatus.ACTIVE, 1),
+                vessel(1L, "Alpha", "IMO1000000", VesselType.FERRY, VesselStatus.AT_SEA, 1),
+                vessel(2L, "Bravo", "IMO2000000", VesselType.TANKER, VesselStatus.ACTIVE, 1)));
+    }
+
+    @Test
+    void isLoaded_BeforeFirstLoad_ShouldBeFalse() {
+        assertFalse(new VesselReadModel().isLoaded());
+        assertThrows(IllegalStateException.class, () -> new VesselReadModel().findAll());
+    }
+
+    @Test
+    void replaceAll_ShouldIndexVessels() {
+        assertEquals(List.of(1L, 2L, 3L), ids(model.findAll()));
+        assertEquals("Bravo", model.getByImoNumber("IMO2000000").orElseThrow().getName());
+        assertEquals(List.of(2L, 3L), ids(model.findByType(VesselType.TANKER)));
+        assertEquals(2, model.countByType(VesselType.TANKER));
+        assertEquals(List.of(1L), ids(model.findByStatus(VesselStatus.AT_SEA)));
+        assertEquals(List.of(1L, 2L, 3L), ids(model.findByFlagState("Malta")));
+        assertEquals(List.of(2L, 3L), ids(model.getAllById(List.of(3L, -1L, 2L))).stream().sorted().toList());
+    }
+
+    @Test
+    void apply_ShouldMoveChangedVesselBetweenIndexes() {
+        model.apply(List.of(vessel(2L, "Bravo II", "IMO2000001", VesselType.FERRY, VesselStatus.DETAINED,
+                2)), List.of());
+
+        assertTrue(model.getByImoNumber("IMO2000000").isEmpty());
+        assertEquals("Bravo II", model.getByImoNumber("IMO2000001").orElseThrow().getName());
+        assertEquals(List.of(3L), ids(model.findByType(VesselType.TANKER)));
+        assertEquals(List.of(1L, 2L), ids(model.findByType(VesselType.FERRY)));
+        assertEquals(List.of(2L), ids(model.findByStatus(VesselStatus.DETAINED)));
+        assertEquals(3, model.size());
+    }
+
+    @Test
+    void apply_WhenChangeIsOlder_ShouldKeepCurrentVessel() {
+        model.apply(List.of(vessel(1L, "Stale", "IMO1000000", VesselType.FERRY, VesselStatus.AT_SEA,
+                0)), List.of());
+
+        assertEquals("Alpha", model.get(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void apply_WhenOlderVersionHasLaterTimestamp_ShouldKeepVersionCommittedLast() {
+        Vessel committedFirst = vessel(1L, "Committed First", "IMO1000000", VesselType.FERRY, VesselStatus.AT_SEA, 2);
+        Vessel committedLast = vessel(1L, "Committed Last", "IMO1000000", VesselType.FERRY, VesselStatus.AT_SEA, 3);
+        // Stamped before waiting for the row lock the other writer held
+        committedLast.setUpdatedAt(UPDATED_AT.plusMinutes(1));
+        committedFirst.setUpdatedAt(UPDATED_AT.plusMinutes(2));
+
+        model.apply(List.of(committedLast), List.of());
+        model.apply(List.of(committedFirst), List.of());
+
+        assertEquals("Committed Last", model.get(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void apply_ChangeReportedAfterRemoval_ShouldNotBringVesselBack() {
+        model.apply(List.of(), Map.of(2L, 2L));
+        model.apply(List.of(vessel(2L, "Bravo II", "IMO2000000", VesselType.TANKER, VesselStatus.ACTIVE, 2)), List.of());
+        assertTrue(model.get(2L).isEmpty());
+        assertTrue(model.getByImoNumber("IMO2000000").isEmpty());
+
+        // Removed by id alone, the vessel's held version is the one removed
+        model.apply(List.of(), List.of(3L));
+        model.apply(List.of(vessel(3L, "Charlie", "IMO3000000", VesselType.TANKER, VesselStatus.ACTIVE, 1)), List.of());
+        assertTrue(model.get(3L).isEmpty());
+
+        // Restored from the archive, with the version carried on
+        model.apply(List.of(vessel(2L, "Bravo", "IMO2000000", VesselType.TANKER, VesselStatus.ACTIVE, 3)), List.of());
+        assertEquals("Bravo", model.get(2L).orElseThrow().getName());
+    }
+
+    @Test
+    void overwrite_WhenChangeIsOlder_ShouldReplaceVessel() {
+        model.overwrite(List.of(vessel(1L, "Repaired", "IMO1000000", VesselType.FERRY, VesselStatus.AT_SEA,
+                0)), List.of());
+
+        assertEquals("Repaired", model.get(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void apply_WhenRemoved_ShouldDropVesselFromAllIndexes() {
+        model.apply(List.of(), List.of(3L, -1L));
+
+        assertEquals(List.of(1L, 2L), ids(model.findAll()));
+        assertTrue(model.get(3L).isEmpty());
+        assertTrue(model.getByImoNumber("IMO3000000").isEmpty());
+        assertEquals(List.of(2L), ids(model.findByType(VesselType.TANKER)));
+        assertTrue(model.searchByName("Charlie").isEmpty());
+    }
+
+    @Test
+    void apply_ShouldNotChangeListsAlreadyHandedOut() {
+        List<Vessel> before = model.findAll();
+
+        model.apply(List.of(vessel(4L, "Delta", "IMO4000000", VesselType.TANKER, VesselStatus.ACTIVE, 1)),
+                List.of(1L));
+
+        assertEquals(List.of(1L, 2L, 3L), ids(before));
+        assertEquals(List.of(2L, 3L, 4L), ids(model.findAll()));
+    }
+
+    @Test
+    void replaceAll_ShouldReplayChangesAppliedDuringRebuild() {
+        model.beginRebuild();
+        model.apply(List.of(vessel(4L, "Delta", "IMO4000000", VesselType.TANKER, VesselStatus.ACTIVE, 1)),
+                List.of(3L));
+
+        // Read before the changes above committed
+        model.replaceAll(List.of(
+                vessel(1L, "Alpha", "IMO1000000", VesselType.FERRY, VesselStatus.AT_SEA, 1),
+                vessel(3L, "Charlie", "IMO3000000", VesselType.TANKER, VesselStatus.ACTIVE, 1)));
+
+        assertEquals(List.of(1L, 4L), ids(model.findAll()));
+    }
+
+    @Test
+    void findPage_ShouldCutPagesFromSortedIndexes() {
+        Page<Vessel> byName = model.findPage(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "name"))).orElseThrow();
+        assertEquals(List.of("Charlie", "Bravo"), byName.getContent().stream().map(Vessel::getName).toList());
+        assertEquals(3, byName.getTotalElements());
+
+        Page<Vessel> second = model.findPage(PageRequest.of(1, 2)).orElseThrow();
+        assertEquals(List.of(3L), ids(second.getContent()));
+
+        assertTrue(model.findPage(PageRequest.of(0, 2, Sort.by("flagState"))).isEmpty());
+    }
+
+    @Test
+    void searchByName_ShouldMatchSubstringInIdOrder() {
+        assertEquals(List.of(1L, 3L), ids(model.searchByName("l")));
+    }
+
+    @Test
+    void apply_ManyChangesAcrossBlocks_ShouldMatchRebuiltModel() {
+        Random random = new Random(7);
+        VesselType[] types = VesselType.values();
+        Map<Long, Vessel> fleet = new HashMap<>();
+        for (long id = 1; id <= 5000; id++) {
+            fleet.put(id, vessel(id, "Vessel " + random.nextInt(100_000), "IMO" + id,
+                    types[random.nextInt(types.length)], VesselStatus.ACTIVE, 1));
+        }
+        model.replaceAll(fleet.values());
+
+        for (int round = 0; round < 500; round++) {
+            List<Vessel> changed = new ArrayList<>();
+            List<Long> removed = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(20); i++) {
+                long id = 1 + random.nextInt(6000);
+                if (random.nextInt(4) == 0) {
+                    removed.add(id);
+                    fleet.remove(id);
+                } else {
+                    Vessel vessel = vessel(id, "Vessel " + random.nextInt(100_000), "IMO" + id,
+                            types[random.nextInt(types.length)], VesselStatus.ACTIVE, round + 2);
+                    changed.add(vessel);
+                    fleet.put(id, vessel);
+                }
+            }
+            removed.removeAll(changed.stream().map(Vessel::getId).toList());
+            model.apply(changed, removed);
+        }
+
+        VesselReadModel rebuilt = new VesselReadModel();
+        rebuilt.replaceAll(fleet.values());
+        assertEquals(ids(rebuilt.findAll()), ids(model.findAll()));
+        assertEquals(ids(rebuilt.findPage(PageRequest.of(0, fleet.size(), Sort.by("name"))).orElseThrow().getContent()),
+                ids(model.findPage(PageRequest.of(0, fleet.size(), Sort.by("name"))).orElseThrow().getContent()));
+        for (VesselType type : types) {
+            assertEquals(ids(rebuilt.findByType(type)), ids(model.findByType(type)));
+        }
+    }
+
+    private static Vessel vessel(Long id, String name, String imoNumber, VesselType type, VesselStatus status,
+                                 long version) {
+        Vessel vessel = new Vessel(name, imoNumber, type, "Malta");
+        vessel.setId(id);
+        vessel.setStatus(status);
+        vessel.setUpdatedAt(UPDATED_AT);
+        vessel.setVersion(version);
+        return vessel;
+    }
+
+    private static List<Long> ids(List<Vessel> vessels) {
+        return vessels.stream().map(Vessel::getId).toList();
+    }
+}
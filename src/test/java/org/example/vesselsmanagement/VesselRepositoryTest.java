@@ -50,6 +50,14 @@ class VesselRepositoryTest {
         assertThat(found).isEmpty();
     }
 
+    @Test
+    void findByImoNumberIn_ShouldReturnOnlyExistingVessels() {
+        List<Vessel> vessels = vesselRepository.findByImoNumberIn(List.of("IMO1234567", "IMO9999999"));
+
+        assertThat(vessels).hasSize(1);
+        assertThat(vessels.get(0).getImoNumber()).isEqualTo("IMO1234567");
+    }
+
     @Test
     void findByType_ShouldReturnVesselsOfType() {
         List<Vessel> vessels = vesselRepository.findByType(VesselType.CARGO_SHIP);
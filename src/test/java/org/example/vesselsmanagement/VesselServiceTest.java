@@ -6,20 +6,51 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class VesselServiceTest {
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @Mock
     private VesselRepository vesselRepository;
 
+    @Mock
+    private VesselJsonCache vesselJsonCache;
+
+    @Mock
+    private VesselChangeLog vesselChangeLog;
+
+    @Mock
+    private VesselHistoryService vesselHistoryService;
+
+    @Mock
+    private VesselPositionService vesselPositionService;
+
+    @Mock
+    private VesselReadModel vesselReadModel;
+
+    @Mock
+    private VesselReadModelService vesselReadModelService;
+
+    @Mock
+    private ArchivedVesselRepository archivedVesselRepository;
+
     @InjectMocks
     private VesselService vesselService;
 
@@ -65,6 +96,63 @@ class VesselServiceTest {
 
         assertThrows(VesselNotFoundException.class, () -> vesselService.getVesselById(1L));
         verify(vesselRepository).findById(1L);
+        verify(archivedVesselRepository, never()).findById(any());
+    }
+
+    @Test
+    void getVesselById_WhenArchivedAndIncluded_ShouldReturnArchivedVessel() {
+        ArchivedVessel archived = new ArchivedVessel();
+        archived.setId(1L);
+        archived.setName("Archived Vessel");
+        archived.setImoNumber("IMO1234567");
+        archived.setStatus(VesselStatus.DECOMMISSIONED);
+        when(vesselRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedVesselRepository.findById(1L)).thenReturn(Optional.of(archived));
+
+        Vessel result = vesselService.getVesselById(1L, true);
+
+        assertEquals("Archived Vessel", result.getName());
+        assertEquals(VesselStatus.DECOMMISSIONED, result.getStatus());
+    }
+
+    @Test
+    void getVesselsByIds_ShouldPreserveOrderAndReportMissing() {
+        Vessel second = new Vessel();
+        second.setId(2L);
+        second.setImoNumber("IMO7654321");
+        when(vesselRepository.findAllByIdCached(anyCollection())).thenReturn(Arrays.asList(second, testVessel));
+
+        VesselBatchResult<Long> result = vesselService.getVesselsByIds(Arrays.asList(1L, 3L, 2L, 1L));
+
+        assertEquals(Arrays.asList(testVessel, second), result.getVessels());
+        assertEquals(List.of(3L), result.getNotFound());
+        verify(vesselRepository, times(1)).findAllByIdCached(anyCollection());
+    }
+
+    @Test
+    void getVesselsByImoNumbers_ShouldQueryInChunks() {
+        List<String> imoNumbers = new ArrayList<>();
+        for (int i = 0; i < VesselService.BATCH_CHUNK_SIZE + 1; i++) {
+            imoNumbers.add(String.format("IMO%07d", i));
+        }
+        when(vesselRepository.findByImoNumberIn(anyCollection())).thenReturn(List.of());
+
+        VesselBatchResult<String> result = vesselService.getVesselsByImoNumbers(imoNumbers);
+
+        assertTrue(result.getVessels().isEmpty());
+        assertEquals(imoNumbers, result.getNotFound());
+        verify(vesselRepository, times(2)).findByImoNumberIn(anyCollection());
+    }
+
+    @Test
+    void getVesselsByIds_WhenTooManyKeys_ShouldThrowException() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= VesselService.MAX_BATCH_SIZE; i++) {
+            ids.add(i);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> vesselService.getVesselsByIds(ids));
+        verify(vesselRepository, never()).findAllByIdCached(any());
     }
 
     @Test
@@ -88,6 +176,52 @@ class VesselServiceTest {
         verify(vesselRepository, never()).save(any());
     }
 
+    @Test
+    void upsertVessels_ShouldCollapseDuplicateImoNumbers() {
+        Vessel duplicate = new Vessel("Renamed Vessel", "IMO1234567", VesselType.CARGO_SHIP, "Panama");
+        runTransactionCallbacks();
+        when(vesselRepository.upsertByImoNumber(anyList(), any())).thenReturn(1);
+
+        int affected = vesselService.upsertVessels(Arrays.asList(testVessel, duplicate));
+
+        assertEquals(1, affected);
+        verify(vesselRepository).upsertByImoNumber(eq(List.of(duplicate)), any());
+        verify(vesselHistoryService).recordUpsertedVersions(eq(List.of("IMO1234567")), any());
+        verify(vesselChangeLog).recordChanges(List.of("IMO1234567"));
+    }
+
+    @Test
+    void upsertVessels_WhenNothingChanged_ShouldNotRecordChanges() {
+        runTransactionCallbacks();
+        when(vesselRepository.upsertByImoNumber(anyList(), any())).thenReturn(0);
+
+        int affected = vesselService.upsertVessels(List.of(testVessel));
+
+        assertEquals(0, affected);
+        verify(vesselHistoryService, never()).recordUpsertedVersions(anyCollection(), any());
+        verify(vesselChangeLog, never()).recordChanges(anyCollection());
+    }
+
+    @Test
+    void upsertVesselByImoNumber_WhenUniqueViolationRaced_ShouldRetry() {
+        runTransactionCallbacks();
+        when(vesselRepository.upsertByImoNumber(anyList(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(1);
+        when(vesselRepository.findByImoNumber("IMO1234567")).thenReturn(Optional.of(testVessel));
+
+        Vessel result = vesselService.upsertVesselByImoNumber("IMO1234567", testVessel);
+
+        assertEquals(testVessel, result);
+        verify(vesselRepository, times(2)).upsertByImoNumber(anyList(), any());
+    }
+
+    @Test
+    void upsertVesselByImoNumber_WhenPathDiffersFromBody_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> vesselService.upsertVesselByImoNumber("IMO7654321", testVessel));
+        verify(vesselRepository, never()).upsertByImoNumber(anyList(), any());
+    }
+
     @Test
     void updateVessel_WhenExists_ShouldUpdateVessel() {
         Vessel updatedDetails = new Vessel();
@@ -98,14 +232,14 @@ class VesselServiceTest {
         updatedDetails.setStatus(VesselStatus.IN_PORT);
 
         when(vesselRepository.findById(1L)).thenReturn(Optional.of(testVessel));
-        when(vesselRepository.save(any(Vessel.class))).thenReturn(testVessel);
+        when(vesselRepository.saveAndFlush(any(Vessel.class))).thenReturn(testVessel);
 
         Vessel result = vesselService.updateVessel(1L, updatedDetails);
 
         assertEquals("Updated Vessel", testVessel.getName());
         assertEquals(VesselType.TANKER, testVessel.getType());
         verify(vesselRepository).findById(1L);
-        verify(vesselRepository).save(testVessel);
+        verify(vesselRepository).saveAndFlush(testVessel);
     }
 
     @Test
@@ -116,6 +250,7 @@ class VesselServiceTest {
 
         verify(vesselRepository).findById(1L);
         verify(vesselRepository).delete(testVessel);
+        verify(vesselJsonCache).evict(1L);
     }
 
     @Test
@@ -133,12 +268,18 @@ class VesselServiceTest {
     @Test
     void updateVesselStatus_WhenExists_ShouldUpdateStatus() {
         when(vesselRepository.findById(1L)).thenReturn(Optional.of(testVessel));
-        when(vesselRepository.save(any(Vessel.class))).thenReturn(testVessel);
+        when(vesselRepository.saveAndFlush(any(Vessel.class))).thenReturn(testVessel);
 
         Vessel result = vesselService.updateVesselStatus(1L, VesselStatus.IN_PORT);
 
         assertEquals(VesselStatus.IN_PORT, testVessel.getStatus());
         verify(vesselRepository).findById(1L);
-        verify(vesselRepository).save(testVessel);
+        verify(vesselRepository).saveAndFlush(testVessel);
+        verify(vesselJsonCache).evict(1L);
+    }
+
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 }
@@ -0,0 +1,152 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VesselSpatialIndexTest {
+
+    private static final LocalDateTime REPORTED_AT = LocalDateTime.of(2024, 3, 3, 12, 0);
+
+    private VesselSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VesselSpatialIndex(1.0);
+    }
+
+    @Test
+    void updatePosition_WhenVesselUnknown_ShouldReturnFalse() {
+        assertFalse(index.updatePosition(1L, 10, 10, null, null, REPORTED_AT));
+    }
+
+    @Test
+    void updatePosition_WhenReportIsOlder_ShouldKeepCurrentPosition() {
+        track(1L, VesselType.TANKER, 51.9, 4.1);
+
+        index.updatePosition(1L, 52.5, 3.0, null, null, REPORTED_AT.minusMinutes(5));
+
+        assertEquals(51.9, index.get(1L).orElseThrow().latitude());
+    }
+
+    @Test
+    void updatePosition_WhenVesselMovesCell_ShouldOnlyBeFoundAtNewPosition() {
+        track(1L, VesselType.TANKER, 51.9, 4.1);
+
+        index.updatePosition(1L, 40.5, -73.9, 270.0, 14.0, REPORTED_AT.plusMinutes(1));
+
+        assertTrue(index.withinBox(51, 3, 53, 5, vessel -> true, 10).isEmpty());
+        assertEquals(1, index.withinBox(40, -75, 41, -73, vessel -> true, 10).size());
+    }
+
+    @Test
+    void remove_ShouldDropVesselFromQueries() {
+        track(1L, VesselType.TANKER, 51.9, 4.1);
+
+        index.remove(1L);
+
+        assertTrue(index.nearest(51.9, 4.1, 5, vessel -> true).isEmpty());
+        assertFalse(index.contains(1L));
+    }
+
+    @Test
+    void withinBox_AcrossAntimeridian_ShouldIncludeBothSides() {
+        track(1L, VesselType.FERRY, -17.0, 179.5);
+        track(2L, VesselType.FERRY, -17.0, -179.5);
+        track(3L, VesselType.FERRY, -17.0, 170.0);
+
+        List<TrackedVessel> found = index.withinBox(-18, 179, -16, -179, vessel -> true, 10);
+
+        assertEquals(List.of(1L, 2L), found.stream().map(TrackedVessel::vesselId).sorted().toList());
+    }
+
+    @Test
+    void withinBox_WrappingWithinOneCell_ShouldReturnEachVesselOnce() {
+        track(1L, VesselType.FERRY, 0.5, 10.8);
+        track(2L, VesselType.FERRY, 0.5, 10.2);
+        track(3L, VesselType.FERRY, 0.5, 10.5);
+        track(4L, VesselType.FERRY, 0.5, -120.0);
+
+        List<TrackedVessel> found = index.withinBox(0, 10.7, 1, 10.3, vessel -> true, 10);
+
+        assertEquals(List.of(1L, 2L, 4L), found.stream().map(TrackedVessel::vesselId).sorted().toList());
+    }
+
+    @Test
+    void nearest_AcrossAntimeridian_ShouldFindClosestVessel() {
+        track(1L, VesselType.FERRY, 0.0, -179.9);
+        track(2L, VesselType.FERRY, 0.0, 175.0);
+
+        List<NearbyVessel> nearest = index.nearest(0.0, 179.9, 1, vessel -> true);
+
+        assertEquals(1L, nearest.get(0).vessel().vesselId());
+        assertEquals(22.2, nearest.get(0).distanceKm(), 0.1);
+    }
+
+    @Test
+    void queries_ShouldMatchBruteForceOverLargeFleet() {
+        Random random = new Random(42);
+        List<TrackedVessel> fleet = new ArrayList<>();
+        VesselType[] types = VesselType.values();
+        for (long id = 1; id <= 100_000; id++) {
+            // Cluster half the fleet around a few busy areas, spread the rest worldwide
+            double latitude;
+            double longitude;
+            if (id % 2 == 0) {
+                double[][] hubs = {{51.9, 4.1}, {1.26, 103.8}, {-33.9, 151.2}, {65.0, 179.0}};
+                double[] hub = hubs[(int) (id % hubs.length)];
+                latitude = Math.max(-90, Math.min(90, hub[0] + random.nextGaussian()));
+                longitude = wrap(hub[1] + random.nextGaussian() * 2);
+            } else {
+                latitude = random.nextDouble() * 180 - 90;
+                longitude = random.nextDouble() * 360 - 180;
+            }
+            track(id, types[(int) (id % types.length)], latitude, longitude);
+            fleet.add(index.get(id).orElseThrow());
+        }
+        Predicate<TrackedVessel> tankers = vessel -> vessel.type() == VesselType.TANKER;
+
+        for (double[] point : new double[][]{{51.9, 4.1}, {0, 0}, {65.0, -179.5}, {89.5, 20}, {-60, 100}}) {
+            for (Predicate<TrackedVessel> filter : List.<Predicate<TrackedVessel>>of(vessel -> true, tankers)) {
+                List<Long> expectedNearest = fleet.stream().filter(filter)
+                        .sorted(Comparator.comparingDouble(vessel -> distance(point, vessel)))
+                        .limit(25).map(TrackedVessel::vesselId).toList();
+                assertEquals(expectedNearest, index.nearest(point[0], point[1], 25, filter).stream()
+                        .map(nearby -> nearby.vessel().vesselId()).toList());
+
+                List<Long> expectedInRadius = fleet.stream().filter(filter)
+                        .filter(vessel -> distance(point, vessel) <= 300)
+                        .map(TrackedVessel::vesselId).sorted().toList();
+                assertEquals(expectedInRadius, index.withinRadius(point[0], point[1], 300, filter, Integer.MAX_VALUE).stream()
+                        .map(nearby -> nearby.vessel().vesselId()).sorted().toList());
+            }
+        }
+
+        List<Long> expectedInBox = fleet.stream()
+                .filter(vessel -> vessel.latitude() >= 50 && vessel.latitude() <= 54
+                        && vessel.longitude() >= 2 && vessel.longitude() <= 6)
+                .map(TrackedVessel::vesselId).sorted().toList();
+        assertEquals(expectedInBox, index.withinBox(50, 2, 54, 6, vessel -> true, Integer.MAX_VALUE).stream()
+                .map(TrackedVessel::vesselId).sorted().toList());
+    }
+
+    private void track(long id, VesselType type, double latitude, double longitude) {
+        index.putAttributes(id, "Vessel " + id, String.format("IMO%07d", id), type, VesselStatus.AT_SEA);
+        index.updatePosition(id, latitude, longitude, null, null, REPORTED_AT);
+    }
+
+    private static double distance(double[] point, TrackedVessel vessel) {
+        return VesselSpatialIndex.distanceKm(point[0], point[1], vessel.latitude(), vessel.longitude());
+    }
+
+    private static double wrap(double longitude) {
+        return ((longitude + 180) % 360 + 360) % 360 - 180;
+    }
+}
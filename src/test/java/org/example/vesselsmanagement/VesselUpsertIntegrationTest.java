@@ -0,0 +1,80 @@
+package org.example.vesselsmanagement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class VesselUpsertIntegrationTest {
+
+    @Autowired
+    private VesselService vesselService;
+
+    @Autowired
+    private VesselRepository vesselRepository;
+
+    private Vessel testVessel;
+
+    @BeforeEach
+    void setUp() {
+        vesselRepository.deleteAll();
+
+        testVessel = new Vessel("Upsert Test Vessel", "IMO3334445", VesselType.BULK_CARRIER, "Liberia");
+        testVessel.setGrossTonnage(82000.0);
+    }
+
+    @Test
+    void upsertVesselByImoNumber_ShouldInsertThenUpdate() {
+        Vessel inserted = vesselService.upsertVesselByImoNumber("IMO3334445", testVessel);
+
+        testVessel.setStatus(VesselStatus.AT_SEA);
+        testVessel.setNextPortOfCall("Rotterdam");
+        Vessel updated = vesselService.upsertVesselByImoNumber("IMO3334445", testVessel);
+
+        assertThat(updated.getId()).isEqualTo(inserted.getId());
+        assertThat(updated.getStatus()).isEqualTo(VesselStatus.AT_SEA);
+        assertThat(updated.getNextPortOfCall()).isEqualTo("Rotterdam");
+        assertThat(updated.getCreatedAt()).isEqualTo(inserted.getCreatedAt());
+        assertThat(vesselRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void upsertVessels_WhenRepeated_ShouldNotTouchUnchangedRows() {
+        Vessel other = new Vessel("Second Upsert Vessel", "IMO5556667", VesselType.FERRY, "Malta");
+
+        assertThat(vesselService.upsertVessels(List.of(testVessel, other))).isEqualTo(2);
+        LocalDateTime firstUpdatedAt = vesselService.getVesselByImoNumber("IMO3334445").getUpdatedAt();
+
+        assertThat(vesselService.upsertVessels(List.of(testVessel, other))).isZero();
+        assertThat(vesselService.getVesselByImoNumber("IMO3334445").getUpdatedAt()).isEqualTo(firstUpdatedAt);
+    }
+
+    @Test
+    void upsertVesselByImoNumber_WhenRunConcurrently_ShouldCreateSingleVessel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Vessel>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Vessel copy = new Vessel(testVessel.getName(), testVessel.getImoNumber(), testVessel.getType(), testVessel.getFlagState());
+                tasks.add(() -> vesselService.upsertVesselByImoNumber("IMO3334445", copy));
+            }
+            for (Future<Vessel> future : executor.invokeAll(tasks)) {
+                assertThat(future.get().getImoNumber()).isEqualTo("IMO3334445");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(vesselRepository.count()).isEqualTo(1);
+    }
+}
@@ -1,13 +1,25 @@
 package org.example.vesselsmanagement;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 class VesselsManagementApplicationTests {
 
+    @Autowired
+    private ApplicationContext applicationContext;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void reactiveServer_ShouldBeOffByDefault() {
+        assertThat(applicationContext.getBeansOfType(ReactiveVesselServer.class)).isEmpty();
+    }
+
 }